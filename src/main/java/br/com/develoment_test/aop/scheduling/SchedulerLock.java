@@ -0,0 +1,36 @@
+package br.com.develoment_test.aop.scheduling;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a scheduled method that must run on only one node of the cluster at a time.
+ * <p>
+ * Nodes that cannot take the lock skip the execution.
+ *
+ * @see SchedulerLockAspect
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SchedulerLock {
+
+    /**
+     * @return the name of the lock, unique per job.
+     */
+    String name();
+
+    /**
+     * @return how long the lock is kept if the node dies while running the job, as an ISO-8601 duration.
+     */
+    String lockAtMostFor();
+
+    /**
+     * @return the minimum time the lock is kept, as an ISO-8601 duration, so that nodes with slightly
+     * different clocks do not run the job again right after it finished.
+     */
+    String lockAtLeastFor() default "PT0S";
+}
@@ -0,0 +1,56 @@
+package br.com.develoment_test.aop.scheduling;
+
+import br.com.develoment_test.service.ScheduledLockService;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Aspect running the methods annotated with {@link SchedulerLock} only when the lock could be taken.
+ * <p>
+ * It runs before the transactional advice, so that the lock is committed before the job starts, but after the
+ * {@link org.springframework.aop.interceptor.ExposeInvocationInterceptor}, which the binding of the annotation needs.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SchedulerLockAspect {
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final ScheduledLockService scheduledLockService;
+
+    public SchedulerLockAspect(ScheduledLockService scheduledLockService) {
+        this.scheduledLockService = scheduledLockService;
+    }
+
+    /**
+     * Advice that runs the job while holding its lock, or skips it.
+     *
+     * @param joinPoint join point for advice.
+     * @param schedulerLock the lock settings of the job.
+     * @return result, {@code null} when the job is skipped.
+     * @throws Throwable throws the exception of the job.
+     */
+    @Around("@annotation(schedulerLock)")
+    public Object runLocked(ProceedingJoinPoint joinPoint, SchedulerLock schedulerLock) throws Throwable {
+        Optional<Instant> lockedAt = scheduledLockService.tryLock(schedulerLock.name(), Duration.parse(schedulerLock.lockAtMostFor()));
+        if (!lockedAt.isPresent()) {
+            log.debug("Skipping {}, lock is held by another node", schedulerLock.name());
+            return null;
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            scheduledLockService.unlock(schedulerLock.name(), lockedAt.get(), Duration.parse(schedulerLock.lockAtLeastFor()));
+        }
+    }
+}
@@ -2,6 +2,9 @@ package br.com.develoment_test.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Properties specific to Development Test.
  * <p>
@@ -10,4 +13,829 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Audit audit = new Audit();
+
+    private final Mail mail = new Mail();
+
+    private final Users users = new Users();
+
+    private final Graphql graphql = new Graphql();
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public Users getUsers() {
+        return users;
+    }
+
+    public Graphql getGraphql() {
+        return graphql;
+    }
+
+    public static class Audit {
+
+        private final Purge purge = new Purge();
+
+        private final Rollup rollup = new Rollup();
+
+        /**
+         * Delay, in milliseconds, between two persistences of the collapsed events whose collapse window is over.
+         */
+        private long collapseFlushIntervalMillis = 10000;
+
+        /**
+         * Persistence policy per audit event type, event types without a policy are all kept.
+         */
+        private Map<String, Policy> policies = new HashMap<>();
+
+        public Purge getPurge() {
+            return purge;
+        }
+
+        public Rollup getRollup() {
+            return rollup;
+        }
+
+        public long getCollapseFlushIntervalMillis() {
+            return collapseFlushIntervalMillis;
+        }
+
+        public void setCollapseFlushIntervalMillis(long collapseFlushIntervalMillis) {
+            this.collapseFlushIntervalMillis = collapseFlushIntervalMillis;
+        }
+
+        public Map<String, Policy> getPolicies() {
+            return policies;
+        }
+
+        public void setPolicies(Map<String, Policy> policies) {
+            this.policies = policies;
+        }
+
+        public static class Purge {
+
+            /**
+             * Width of the id range deleted by a single purge transaction.
+             */
+            private int chunkSize = 1000;
+
+            /**
+             * Pause, in milliseconds, between two purge transactions.
+             */
+            private long pauseMillis = 100;
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public long getPauseMillis() {
+                return pauseMillis;
+            }
+
+            public void setPauseMillis(long pauseMillis) {
+                this.pauseMillis = pauseMillis;
+            }
+        }
+
+        public static class Rollup {
+
+            /**
+             * Delay, in milliseconds, between two flushes of the in-memory counters to the rollup table.
+             */
+            private long flushIntervalMillis = 10000;
+
+            public long getFlushIntervalMillis() {
+                return flushIntervalMillis;
+            }
+
+            public void setFlushIntervalMillis(long flushIntervalMillis) {
+                this.flushIntervalMillis = flushIntervalMillis;
+            }
+        }
+
+        public static class Policy {
+
+            public enum Mode {
+                /**
+                 * Persist every event.
+                 */
+                KEEP,
+                /**
+                 * Persist one event out of {@code sample-rate}.
+                 */
+                SAMPLE,
+                /**
+                 * Persist identical events of a principal once per {@code collapse-window-seconds}, with their count.
+                 */
+                COLLAPSE
+            }
+
+            private Mode mode = Mode.KEEP;
+
+            private int sampleRate = 1;
+
+            private long collapseWindowSeconds = 60;
+
+            public Mode getMode() {
+                return mode;
+            }
+
+            public void setMode(Mode mode) {
+                this.mode = mode;
+            }
+
+            public int getSampleRate() {
+                return sampleRate;
+            }
+
+            public void setSampleRate(int sampleRate) {
+                this.sampleRate = sampleRate;
+            }
+
+            public long getCollapseWindowSeconds() {
+                return collapseWindowSeconds;
+            }
+
+            public void setCollapseWindowSeconds(long collapseWindowSeconds) {
+                this.collapseWindowSeconds = collapseWindowSeconds;
+            }
+        }
+    }
+
+    public static class Mail {
+
+        private final Outbox outbox = new Outbox();
+
+        private final TransportPool transportPool = new TransportPool();
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        public TransportPool getTransportPool() {
+            return transportPool;
+        }
+
+        public static class Outbox {
+
+            /**
+             * Maximum number of messages claimed by one dispatch.
+             */
+            private int batchSize = 50;
+
+            /**
+             * Delay, in milliseconds, between two dispatches of the outbox.
+             */
+            private long pollIntervalMillis = 5000;
+
+            /**
+             * Number of attempts after which a message is marked as failed.
+             */
+            private int maxAttempts = 5;
+
+            /**
+             * Delay before the first retry, doubled after each failed attempt.
+             */
+            private long initialBackoffSeconds = 30;
+
+            private long maxBackoffSeconds = 3600;
+
+            /**
+             * How long claimed messages are reserved for their dispatcher, should it die while sending them.
+             */
+            private long leaseSeconds = 300;
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public long getPollIntervalMillis() {
+                return pollIntervalMillis;
+            }
+
+            public void setPollIntervalMillis(long pollIntervalMillis) {
+                this.pollIntervalMillis = pollIntervalMillis;
+            }
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public long getInitialBackoffSeconds() {
+                return initialBackoffSeconds;
+            }
+
+            public void setInitialBackoffSeconds(long initialBackoffSeconds) {
+                this.initialBackoffSeconds = initialBackoffSeconds;
+            }
+
+            public long getMaxBackoffSeconds() {
+                return maxBackoffSeconds;
+            }
+
+            public void setMaxBackoffSeconds(long maxBackoffSeconds) {
+                this.maxBackoffSeconds = maxBackoffSeconds;
+            }
+
+            public long getLeaseSeconds() {
+                return leaseSeconds;
+            }
+
+            public void setLeaseSeconds(long leaseSeconds) {
+                this.leaseSeconds = leaseSeconds;
+            }
+        }
+
+        public static class TransportPool {
+
+            /**
+             * Maximum number of open SMTP connections.
+             */
+            private int size = 2;
+
+            /**
+             * Messages sent over one connection before it is replaced, SMTP servers often limit it.
+             */
+            private int maxMessagesPerConnection = 100;
+
+            /**
+             * Idle time after which a pooled connection is closed instead of being reused.
+             */
+            private long maxIdleSeconds = 60;
+
+            private long borrowTimeoutSeconds = 30;
+
+            public int getSize() {
+                return size;
+            }
+
+            public void setSize(int size) {
+                this.size = size;
+            }
+
+            public int getMaxMessagesPerConnection() {
+                return maxMessagesPerConnection;
+            }
+
+            public void setMaxMessagesPerConnection(int maxMessagesPerConnection) {
+                this.maxMessagesPerConnection = maxMessagesPerConnection;
+            }
+
+            public long getMaxIdleSeconds() {
+                return maxIdleSeconds;
+            }
+
+            public void setMaxIdleSeconds(long maxIdleSeconds) {
+                this.maxIdleSeconds = maxIdleSeconds;
+            }
+
+            public long getBorrowTimeoutSeconds() {
+                return borrowTimeoutSeconds;
+            }
+
+            public void setBorrowTimeoutSeconds(long borrowTimeoutSeconds) {
+                this.borrowTimeoutSeconds = borrowTimeoutSeconds;
+            }
+        }
+    }
+
+    public static class Users {
+
+        /**
+         * Maximum number of logins of a bulk mutation, larger ones are rejected.
+         */
+        private int bulkMaxLogins = 500;
+
+        public int getBulkMaxLogins() {
+            return bulkMaxLogins;
+        }
+
+        public void setBulkMaxLogins(int bulkMaxLogins) {
+            this.bulkMaxLogins = bulkMaxLogins;
+        }
+    }
+
+    public static class Graphql {
+
+        private final Limits limits = new Limits();
+
+        private final DocumentCache documentCache = new DocumentCache();
+
+        private final PersistedQueries persistedQueries = new PersistedQueries();
+
+        private final Executor executor = new Executor();
+
+        private final Subscriptions subscriptions = new Subscriptions();
+
+        private final ResponseCache responseCache = new ResponseCache();
+
+        private final Batch batch = new Batch();
+
+        private final Tracing tracing = new Tracing();
+
+        private final Introspection introspection = new Introspection();
+
+        private final Streaming streaming = new Streaming();
+
+        private final BinaryFormats binaryFormats = new BinaryFormats();
+
+        private final Deferred deferred = new Deferred();
+
+        public Limits getLimits() {
+            return limits;
+        }
+
+        public DocumentCache getDocumentCache() {
+            return documentCache;
+        }
+
+        public PersistedQueries getPersistedQueries() {
+            return persistedQueries;
+        }
+
+        public Executor getExecutor() {
+            return executor;
+        }
+
+        public Subscriptions getSubscriptions() {
+            return subscriptions;
+        }
+
+        public ResponseCache getResponseCache() {
+            return responseCache;
+        }
+
+        public Batch getBatch() {
+            return batch;
+        }
+
+        public Tracing getTracing() {
+            return tracing;
+        }
+
+        public Introspection getIntrospection() {
+            return introspection;
+        }
+
+        public Streaming getStreaming() {
+            return streaming;
+        }
+
+        public BinaryFormats getBinaryFormats() {
+            return binaryFormats;
+        }
+
+        public Deferred getDeferred() {
+            return deferred;
+        }
+
+        /**
+         * Static limits checked when a query is validated, before any field is resolved.
+         */
+        public static class Limits {
+
+            /**
+             * Maximum nesting of fields, the root fields being at depth 1. Introspection fields are not counted.
+             */
+            private int maxDepth = 10;
+
+            /**
+             * Maximum cost of a query.
+             */
+            private int maxCost = 1000;
+
+            /**
+             * Cost of a list field without size argument nor configured list size.
+             */
+            private int defaultListSize = 20;
+
+            /**
+             * Cost of fields by {@code Type.field}, defaults to 1 for object fields and 0 for scalar fields.
+             */
+            private Map<String, Integer> fieldCosts = new HashMap<>();
+
+            /**
+             * Expected number of elements of list fields by {@code Type.field}, used when the field has no
+             * {@code size} or {@code first} argument.
+             */
+            private Map<String, Integer> listSizes = new HashMap<>();
+
+            public int getMaxDepth() {
+                return maxDepth;
+            }
+
+            public void setMaxDepth(int maxDepth) {
+                this.maxDepth = maxDepth;
+            }
+
+            public int getMaxCost() {
+                return maxCost;
+            }
+
+            public void setMaxCost(int maxCost) {
+                this.maxCost = maxCost;
+            }
+
+            public int getDefaultListSize() {
+                return defaultListSize;
+            }
+
+            public void setDefaultListSize(int defaultListSize) {
+                this.defaultListSize = defaultListSize;
+            }
+
+            public Map<String, Integer> getFieldCosts() {
+                return fieldCosts;
+            }
+
+            public void setFieldCosts(Map<String, Integer> fieldCosts) {
+                this.fieldCosts = fieldCosts;
+            }
+
+            public Map<String, Integer> getListSizes() {
+                return listSizes;
+            }
+
+            public void setListSizes(Map<String, Integer> listSizes) {
+                this.listSizes = listSizes;
+            }
+        }
+
+        public static class DocumentCache {
+
+            /**
+             * Maximum number of parsed and validated documents kept in memory.
+             */
+            private int maxSize = 500;
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+
+        public static class PersistedQueries {
+
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of queries remembered by hash.
+             */
+            private int maxSize = 1000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+
+        /**
+         * Executor of the root fields of the queries, full queues make the request thread resolve the field.
+         */
+        public static class Executor {
+
+            private int coreSize = 4;
+
+            private int maxSize = 16;
+
+            private int queueCapacity = 100;
+
+            public int getCoreSize() {
+                return coreSize;
+            }
+
+            public void setCoreSize(int coreSize) {
+                this.coreSize = coreSize;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        public static class Subscriptions {
+
+            /**
+             * Events buffered per subscriber, the oldest are dropped when a subscriber is too slow.
+             */
+            private int bufferSize = 256;
+
+            /**
+             * Threads delivering the events to the subscribers.
+             */
+            private int poolSize = 4;
+
+            public int getBufferSize() {
+                return bufferSize;
+            }
+
+            public void setBufferSize(int bufferSize) {
+                this.bufferSize = bufferSize;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+        }
+
+        public static class ResponseCache {
+
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of query results kept in memory.
+             */
+            private int maxSize = 1000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+
+        /**
+         * Requests holding a JSON array of operations, which are executed concurrently.
+         */
+        public static class Batch {
+
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of operations of a batch, larger batches are rejected.
+             */
+            private int maxOperations = 10;
+
+            private int poolSize = 8;
+
+            /**
+             * Operations waiting for a thread, when full the request thread executes the operation.
+             */
+            private int queueCapacity = 50;
+
+            /**
+             * Time given to the operations of a batch, after which the pending ones get an error as their result.
+             */
+            private long timeoutSeconds = 30;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxOperations() {
+                return maxOperations;
+            }
+
+            public void setMaxOperations(int maxOperations) {
+                this.maxOperations = maxOperations;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public long getTimeoutSeconds() {
+                return timeoutSeconds;
+            }
+
+            public void setTimeoutSeconds(long timeoutSeconds) {
+                this.timeoutSeconds = timeoutSeconds;
+            }
+        }
+
+        public static class Tracing {
+
+            /**
+             * Maximum number of operation names used as metric tags, the other names are tagged {@code other}.
+             */
+            private int maxOperationNames = 100;
+
+            /**
+             * Whether administrators can get the Apollo tracing extension in the results.
+             */
+            private boolean apolloEnabled = true;
+
+            /**
+             * Request header asking for the Apollo tracing extension.
+             */
+            private String header = "X-GraphQL-Tracing";
+
+            public int getMaxOperationNames() {
+                return maxOperationNames;
+            }
+
+            public void setMaxOperationNames(int maxOperationNames) {
+                this.maxOperationNames = maxOperationNames;
+            }
+
+            public boolean isApolloEnabled() {
+                return apolloEnabled;
+            }
+
+            public void setApolloEnabled(boolean apolloEnabled) {
+                this.apolloEnabled = apolloEnabled;
+            }
+
+            public String getHeader() {
+                return header;
+            }
+
+            public void setHeader(String header) {
+                this.header = header;
+            }
+        }
+
+        /**
+         * Queries selecting only introspection fields, whose results are computed once.
+         */
+        public static class Introspection {
+
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of distinct introspection queries whose result is kept in memory.
+             */
+            private int maxSize = 16;
+
+            /**
+             * Introspection queries allowed per minute over the whole application, 0 for no limit.
+             */
+            private int permitsPerMinute = 0;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public int getPermitsPerMinute() {
+                return permitsPerMinute;
+            }
+
+            public void setPermitsPerMinute(int permitsPerMinute) {
+                this.permitsPerMinute = permitsPerMinute;
+            }
+        }
+
+        /**
+         * Results written directly to the response stream instead of being serialized in memory first.
+         */
+        public static class Streaming {
+
+            private boolean enabled = true;
+
+            /**
+             * Whether results are gzipped for the clients accepting it, when not done by the server.
+             */
+            private boolean gzip = false;
+
+            /**
+             * Size of the buffer of the gzip stream, in bytes.
+             */
+            private int bufferSize = 8192;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public boolean isGzip() {
+                return gzip;
+            }
+
+            public void setGzip(boolean gzip) {
+                this.gzip = gzip;
+            }
+
+            public int getBufferSize() {
+                return bufferSize;
+            }
+
+            public void setBufferSize(int bufferSize) {
+                this.bufferSize = bufferSize;
+            }
+        }
+
+        /**
+         * Requests and results sent in Smile or CBOR instead of JSON.
+         */
+        public static class BinaryFormats {
+
+            private boolean enabled = true;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+
+        /**
+         * Results of the queries using {@code @defer}, sent incrementally.
+         */
+        public static class Deferred {
+
+            /**
+             * Time given to the deferred fields to complete, after which the response ends with an error.
+             */
+            private long timeoutSeconds = 30;
+
+            public long getTimeoutSeconds() {
+                return timeoutSeconds;
+            }
+
+            public void setTimeoutSeconds(long timeoutSeconds) {
+                this.timeoutSeconds = timeoutSeconds;
+            }
+        }
+    }
 }
@@ -0,0 +1,223 @@
+package br.com.develoment_test.config;
+
+import br.com.develoment_test.config.graphql.BatchedRequestFilter;
+import br.com.develoment_test.config.graphql.BinaryFormatsFilter;
+import br.com.develoment_test.config.graphql.CacheControlInstrumentation;
+import br.com.develoment_test.config.graphql.CachingPreparsedDocumentProvider;
+import br.com.develoment_test.config.graphql.ConcurrentQueryFieldsInstrumentation;
+import br.com.develoment_test.config.graphql.DeferredResponseFilter;
+import br.com.develoment_test.config.graphql.ExecutionMetricsInstrumentation;
+import br.com.develoment_test.config.graphql.IntrospectionFilter;
+import br.com.develoment_test.config.graphql.PersistedQueryFilter;
+import br.com.develoment_test.config.graphql.PropertyFetchersInstrumentation;
+import br.com.develoment_test.config.graphql.QueryLimitsInstrumentation;
+import br.com.develoment_test.config.graphql.ResolverWiring;
+import br.com.develoment_test.config.graphql.ResponseCacheFilter;
+import br.com.develoment_test.config.graphql.StreamingResponseFilter;
+
+import com.coxautodev.graphql.tools.GraphQLResolver;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.servlet.AbstractGraphQLHttpServlet;
+import graphql.servlet.GraphQLInvocationInputFactory;
+import graphql.servlet.GraphQLObjectMapper;
+import graphql.servlet.GraphQLQueryInvoker;
+import graphql.servlet.ObjectMapperConfigurer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class GraphQLConfiguration {
+
+    /**
+     * The instrumentations of the GraphQL queries, the servlet adds the data loader dispatching to them.
+     */
+    @Bean
+    public Instrumentation graphQLInstrumentation(ApplicationProperties applicationProperties, MeterRegistry meterRegistry,
+                                                  @Qualifier("graphQLResolverExecutor") ExecutorService graphQLResolverExecutor,
+                                                  ResolverWiring resolverWiring) {
+        List<Instrumentation> instrumentations = new ArrayList<>();
+        instrumentations.add(new ExecutionMetricsInstrumentation(applicationProperties, meterRegistry));
+        // Before the instrumentations wrapping the fetchers, to see the fetchers of graphql-java-tools
+        instrumentations.add(new PropertyFetchersInstrumentation(resolverWiring));
+        instrumentations.add(new QueryLimitsInstrumentation(applicationProperties, meterRegistry));
+        instrumentations.add(new CacheControlInstrumentation());
+        instrumentations.add(new ConcurrentQueryFieldsInstrumentation(graphQLResolverExecutor));
+        return new ChainedInstrumentation(instrumentations);
+    }
+
+    @Bean
+    public ResolverWiring resolverWiring(List<GraphQLResolver<?>> resolvers) {
+        return new ResolverWiring(resolvers);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService graphQLResolverExecutor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Graphql.Executor properties = applicationProperties.getGraphql().getExecutor();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getCoreSize(), properties.getMaxSize(),
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory("graphql-resolver-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "graphql.resolver", Tags.empty());
+    }
+
+    /**
+     * Executor delivering the events of the subscriptions, so that a blocked subscriber does not delay the others.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService graphQLSubscriptionExecutor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        int poolSize = applicationProperties.getGraphql().getSubscriptions().getPoolSize();
+        // Each subscriber has at most one task queued, so the queue is bounded by the number of subscribers
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("graphql-subscription-"));
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "graphql.subscription", Tags.empty());
+    }
+
+    /**
+     * Executor of the operations of batched requests, separate from the resolver executor so that operations never
+     * wait for fields queued behind other operations.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "application.graphql.batch", name = "enabled", matchIfMissing = true)
+    public ExecutorService graphQLBatchExecutor(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Graphql.Batch properties = applicationProperties.getGraphql().getBatch();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getPoolSize(), properties.getPoolSize(),
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory("graphql-batch-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "graphql.batch", Tags.empty());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.graphql.batch", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<BatchedRequestFilter> batchedRequestFilter(ObjectMapper objectMapper,
+                                                                             ObjectProvider<AbstractGraphQLHttpServlet> graphQLServlet,
+                                                                             @Qualifier("graphQLBatchExecutor") ExecutorService graphQLBatchExecutor,
+                                                                             ApplicationProperties applicationProperties,
+                                                                             MeterRegistry meterRegistry) {
+        FilterRegistrationBean<BatchedRequestFilter> registration = new FilterRegistrationBean<>(new BatchedRequestFilter(
+            objectMapper, graphQLServlet::getObject, graphQLBatchExecutor, applicationProperties, meterRegistry));
+        registration.addUrlPatterns("/graphql");
+        // After the persisted queries, which are resolved for the whole batch
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 3);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<DeferredResponseFilter> deferredResponseFilter(ObjectMapper objectMapper,
+                                                                                 ObjectProvider<GraphQLInvocationInputFactory> invocationInputFactory,
+                                                                                 ObjectProvider<GraphQLQueryInvoker> queryInvoker,
+                                                                                 ApplicationProperties applicationProperties) {
+        FilterRegistrationBean<DeferredResponseFilter> registration = new FilterRegistrationBean<>(new DeferredResponseFilter(
+            objectMapper, invocationInputFactory::getObject, queryInvoker::getObject, applicationProperties));
+        registration.addUrlPatterns("/graphql");
+        // After the persisted queries, which give the query to inspect
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 4);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<IntrospectionFilter> introspectionFilter(ObjectMapper objectMapper,
+                                                                           ApplicationProperties applicationProperties,
+                                                                           MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IntrospectionFilter> registration =
+            new FilterRegistrationBean<>(new IntrospectionFilter(objectMapper, applicationProperties, meterRegistry));
+        registration.addUrlPatterns("/graphql");
+        // After the persisted queries, which give the query to inspect
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 5);
+        return registration;
+    }
+
+    /**
+     * Registers the Jackson modules of the application on the mapper of the GraphQL servlet, so that results are
+     * serialized as by the REST resources.
+     */
+    @Bean
+    public ObjectMapperConfigurer graphQLObjectMapperConfigurer(List<Module> modules) {
+        return objectMapper -> objectMapper.registerModules(modules);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.graphql.streaming", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<StreamingResponseFilter> streamingResponseFilter(ObjectProvider<GraphQLObjectMapper> graphQLObjectMapper,
+                                                                                   ObjectProvider<GraphQLInvocationInputFactory> invocationInputFactory,
+                                                                                   ObjectProvider<GraphQLQueryInvoker> queryInvoker,
+                                                                                   ApplicationProperties applicationProperties,
+                                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StreamingResponseFilter> registration = new FilterRegistrationBean<>(new StreamingResponseFilter(
+            graphQLObjectMapper::getObject, invocationInputFactory::getObject, queryInvoker::getObject,
+            applicationProperties, meterRegistry));
+        registration.addUrlPatterns("/graphql");
+        // Last, the other filters answer some requests without executing them
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 7);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.graphql.binary-formats", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<BinaryFormatsFilter> binaryFormatsFilter(ObjectProvider<GraphQLObjectMapper> graphQLObjectMapper,
+                                                                           ObjectProvider<GraphQLInvocationInputFactory> invocationInputFactory,
+                                                                           ObjectProvider<GraphQLQueryInvoker> queryInvoker) {
+        FilterRegistrationBean<BinaryFormatsFilter> registration = new FilterRegistrationBean<>(new BinaryFormatsFilter(
+            graphQLObjectMapper::getObject, invocationInputFactory::getObject, queryInvoker::getObject));
+        registration.addUrlPatterns("/graphql");
+        // Before the streaming of the JSON results
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 6);
+        return registration;
+    }
+
+    @Bean
+    public PreparsedDocumentProvider preparsedDocumentProvider(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return new CachingPreparsedDocumentProvider(applicationProperties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.graphql.persisted-queries", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<PersistedQueryFilter> persistedQueryFilter(ObjectMapper objectMapper,
+                                                                             ApplicationProperties applicationProperties,
+                                                                             MeterRegistry meterRegistry) {
+        FilterRegistrationBean<PersistedQueryFilter> registration =
+            new FilterRegistrationBean<>(new PersistedQueryFilter(objectMapper, applicationProperties, meterRegistry));
+        registration.addUrlPatterns("/graphql");
+        // After the security filters and the response cache
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.graphql.response-cache", name = "enabled", matchIfMissing = true)
+    public ResponseCacheFilter responseCacheFilter(ObjectMapper objectMapper, ApplicationProperties applicationProperties,
+                                                   MeterRegistry meterRegistry) {
+        return new ResponseCacheFilter(objectMapper, applicationProperties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.graphql.response-cache", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilterRegistration(ResponseCacheFilter responseCacheFilter) {
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(responseCacheFilter);
+        registration.addUrlPatterns("/graphql");
+        // After the security filters, as cached results depend on the caller
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
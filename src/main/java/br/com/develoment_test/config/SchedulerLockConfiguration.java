@@ -0,0 +1,18 @@
+package br.com.develoment_test.config;
+
+import br.com.develoment_test.aop.scheduling.SchedulerLockAspect;
+import br.com.develoment_test.service.ScheduledLockService;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class SchedulerLockConfiguration {
+
+    @Bean
+    public SchedulerLockAspect schedulerLockAspect(ScheduledLockService scheduledLockService) {
+        return new SchedulerLockAspect(scheduledLockService);
+    }
+}
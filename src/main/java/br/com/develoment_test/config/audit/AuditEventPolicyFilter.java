@@ -0,0 +1,167 @@
+package br.com.develoment_test.config.audit;
+
+import br.com.develoment_test.config.ApplicationProperties;
+
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies the configured {@link ApplicationProperties.Audit.Policy} of each event type before audit events are persisted.
+ * <p>
+ * Sampled events carry a {@code sampleRate} data entry, and collapsed events a {@code count} data entry, so that
+ * the stored events can still be scaled back to the real activity.
+ */
+@Component
+public class AuditEventPolicyFilter {
+
+    static final String SAMPLE_RATE_KEY = "sampleRate";
+
+    static final String COUNT_KEY = "count";
+
+    private final Map<String, ApplicationProperties.Audit.Policy> policies;
+
+    private final AuditEventConverter auditEventConverter;
+
+    private final ConcurrentMap<String, AtomicLong> sampleCounters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<CollapseKey, CollapsedEvent> collapsedEvents = new ConcurrentHashMap<>();
+
+    public AuditEventPolicyFilter(ApplicationProperties applicationProperties, AuditEventConverter auditEventConverter) {
+        this.policies = applicationProperties.getAudit().getPolicies();
+        this.auditEventConverter = auditEventConverter;
+    }
+
+    /**
+     * Apply the policy of the event type.
+     *
+     * @param event the incoming event.
+     * @return the event to persist right away, or {@code null} if it was sampled out or collapsed.
+     */
+    public AuditEvent filter(AuditEvent event) {
+        ApplicationProperties.Audit.Policy policy = policies.get(event.getType());
+        if (policy == null) {
+            return event;
+        }
+        switch (policy.getMode()) {
+            case SAMPLE:
+                return sample(event, policy.getSampleRate());
+            case COLLAPSE:
+                collapse(event, policy.getCollapseWindowSeconds());
+                return null;
+            default:
+                return event;
+        }
+    }
+
+    /**
+     * Remove the collapsed events whose window is over.
+     *
+     * @param now the current date, or {@code null} to remove all the collapsed events.
+     * @return the collapsed events to persist.
+     */
+    public List<AuditEvent> drainCollapsed(Instant now) {
+        List<AuditEvent> drained = new ArrayList<>();
+        for (CollapseKey key : collapsedEvents.keySet()) {
+            collapsedEvents.computeIfPresent(key, (k, collapsed) -> {
+                if (now != null && collapsed.windowEnd.isAfter(now)) {
+                    return collapsed;
+                }
+                drained.add(collapsed.toAuditEvent());
+                return null;
+            });
+        }
+        return drained;
+    }
+
+    private AuditEvent sample(AuditEvent event, int sampleRate) {
+        if (sampleRate <= 1) {
+            return event;
+        }
+        long index = sampleCounters.computeIfAbsent(event.getType(), type -> new AtomicLong()).getAndIncrement();
+        if (index % sampleRate != 0) {
+            return null;
+        }
+        return withData(event, SAMPLE_RATE_KEY, sampleRate);
+    }
+
+    private void collapse(AuditEvent event, long windowSeconds) {
+        CollapseKey key = new CollapseKey(event.getPrincipal(), event.getType(),
+            auditEventConverter.convertDataToStrings(event.getData()));
+        collapsedEvents.compute(key, (k, collapsed) -> {
+            if (collapsed == null) {
+                return new CollapsedEvent(event, event.getTimestamp().plusSeconds(windowSeconds));
+            }
+            collapsed.count++;
+            return collapsed;
+        });
+    }
+
+    private static AuditEvent withData(AuditEvent event, String key, Object value) {
+        Map<String, Object> data = new HashMap<>(event.getData());
+        data.put(key, value);
+        return new AuditEvent(event.getTimestamp(), event.getPrincipal(), event.getType(), data);
+    }
+
+    /**
+     * First event of a collapse window, guarded by the map entry it is stored in.
+     */
+    private static final class CollapsedEvent {
+
+        private final AuditEvent first;
+
+        private final Instant windowEnd;
+
+        private long count = 1;
+
+        private CollapsedEvent(AuditEvent first, Instant windowEnd) {
+            this.first = first;
+            this.windowEnd = windowEnd;
+        }
+
+        private AuditEvent toAuditEvent() {
+            return count == 1 ? first : withData(first, COUNT_KEY, count);
+        }
+    }
+
+    private static final class CollapseKey {
+
+        private final String principal;
+
+        private final String type;
+
+        private final Map<String, String> data;
+
+        private CollapseKey(String principal, String type, Map<String, String> data) {
+            this.principal = principal;
+            this.type = type;
+            this.data = data;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CollapseKey)) {
+                return false;
+            }
+            CollapseKey other = (CollapseKey) o;
+            return principal.equals(other.principal) && type.equals(other.type) && data.equals(other.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(principal, type, data);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.develoment_test.config.audit;
+
+import br.com.develoment_test.domain.PersistentAuditEventRollup;
+import br.com.develoment_test.repository.PersistenceAuditEventRollupRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Counts audit events per hour, principal and event type in memory, and periodically adds
+ * the counts to the {@link PersistentAuditEventRollup} table.
+ */
+@Component
+public class AuditEventRollupAggregator {
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventRollupAggregator.class);
+
+    private final ConcurrentMap<RollupKey, Long> counters = new ConcurrentHashMap<>();
+
+    private final PersistenceAuditEventRollupRepository rollupRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public AuditEventRollupAggregator(PersistenceAuditEventRollupRepository rollupRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Count one event in the hourly bucket of its timestamp.
+     *
+     * @param principal the principal of the event.
+     * @param type the type of the event.
+     * @param timestamp the date of the event.
+     */
+    public void record(String principal, String type, Instant timestamp) {
+        record(new RollupKey(principal, type, timestamp.truncatedTo(ChronoUnit.HOURS)), 1);
+    }
+
+    private void record(RollupKey key, long count) {
+        counters.merge(key, count, Long::sum);
+    }
+
+    /**
+     * Add the pending counts to the rollup table.
+     * <p>
+     * Each count is removed from memory atomically with its last increment, so an event recorded during the flush
+     * starts a new count for the next flush instead of being lost.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${application.audit.rollup.flush-interval-millis:10000}")
+    public void flush() {
+        for (RollupKey key : counters.keySet()) {
+            Long delta = counters.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.execute(status -> {
+                    if (rollupRepository.incrementEventCount(key.principal, key.type, key.bucketStart, delta) == 0) {
+                        rollupRepository.saveAndFlush(new PersistentAuditEventRollup(key.principal, key.type, key.bucketStart, delta));
+                    }
+                    return null;
+                });
+            } catch (DataAccessException e) {
+                // Most likely another node inserted the same bucket first: the next flush will update it.
+                log.warn("Could not flush {} audit events of {}, will retry: {}", delta, key, e.getMessage());
+                record(key, delta);
+            }
+        }
+    }
+
+    private static final class RollupKey {
+
+        private final String principal;
+
+        private final String type;
+
+        private final Instant bucketStart;
+
+        private RollupKey(String principal, String type, Instant bucketStart) {
+            this.principal = principal;
+            this.type = type;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return principal.equals(other.principal) && type.equals(other.type) && bucketStart.equals(other.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(principal, type, bucketStart);
+        }
+
+        @Override
+        public String toString() {
+            return "RollupKey{" +
+                "principal='" + principal + '\'' +
+                ", type='" + type + '\'' +
+                ", bucketStart=" + bucketStart +
+                '}';
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.language.Definition;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.Servlet;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes the operations of a batched GraphQL request, a JSON array of operations, concurrently.
+ * <p>
+ * Each operation is handed to the GraphQL servlet as a {@link DetachedRequest} of its own, copied from the batch
+ * request before the operations start, with the security context of the batch, so the authentication is done once
+ * for the whole batch. The mutations are executed one after the other, in the order of the batch, as they may
+ * depend on each other, while the queries are executed concurrently. The response is the array of the results, in
+ * the order of the operations. Batches larger than the configured maximum are rejected, and the operations not done
+ * within the timeout of the batch get an error as their result and are cancelled.
+ */
+public class BatchedRequestFilter extends OncePerRequestFilter {
+
+    private final Logger log = LoggerFactory.getLogger(BatchedRequestFilter.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final Supplier<Servlet> graphQLServlet;
+
+    private final ExecutorService executor;
+
+    private final int maxOperations;
+
+    private final long timeoutSeconds;
+
+    private final DistributionSummary batchSizeSummary;
+
+    public BatchedRequestFilter(ObjectMapper objectMapper, Supplier<Servlet> graphQLServlet, ExecutorService executor,
+                                ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.graphQLServlet = graphQLServlet;
+        this.executor = executor;
+        this.maxOperations = applicationProperties.getGraphql().getBatch().getMaxOperations();
+        this.timeoutSeconds = applicationProperties.getGraphql().getBatch().getTimeoutSeconds();
+        this.batchSizeSummary = DistributionSummary.builder("graphql.batch.size")
+            .description("Number of operations of the batched GraphQL requests")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        GraphQLRequestBody body = GraphQLRequestBody.of(request, objectMapper);
+        if (body == null || !body.isBatch()) {
+            filterChain.doFilter(body == null ? request : body.wrap(request), response);
+            return;
+        }
+        JsonNode operations = body.getOperations();
+        if (operations.size() > maxOperations) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Collections.singletonMap("errors", Collections.singletonList(
+                Collections.singletonMap("message", "A batch cannot have more than " + maxOperations + " operations"))));
+            return;
+        }
+        batchSizeSummary.record(operations.size());
+
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        List<Future<byte[]>> results = new ArrayList<>(operations.size());
+        List<Runnable> mutations = new ArrayList<>();
+        List<Future<?>> tasks = new ArrayList<>();
+        for (JsonNode operation : operations) {
+            DetachedRequest operationRequest = new DetachedRequest(request, objectMapper.writeValueAsBytes(operation));
+            if (isMutation(operation)) {
+                CompletableFuture<byte[]> result = new CompletableFuture<>();
+                mutations.add(() -> result.complete(execute(operationRequest, response, securityContext)));
+                results.add(result);
+            } else {
+                Future<byte[]> result = executor.submit(() -> execute(operationRequest, response, securityContext));
+                results.add(result);
+                tasks.add(result);
+            }
+        }
+        if (!mutations.isEmpty()) {
+            tasks.add(executor.submit(() -> {
+                for (Runnable mutation : mutations) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    mutation.run();
+                }
+            }));
+        }
+
+        try {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+            ServletOutputStream out = response.getOutputStream();
+            out.write('[');
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            for (int i = 0; i < results.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(await(results.get(i), deadline));
+            }
+            out.write(']');
+        } finally {
+            // The operations not done by the deadline are interrupted, the others are not affected
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+
+    /**
+     * @return whether the operation to execute in the query is a mutation.
+     */
+    private static boolean isMutation(JsonNode operation) {
+        String query = operation.path("query").asText(null);
+        if (query == null || !query.contains("mutation")) {
+            return false;
+        }
+        String operationName = operation.path("operationName").asText(null);
+        try {
+            for (Definition definition : new Parser().parseDocument(query).getDefinitions()) {
+                if (definition instanceof OperationDefinition &&
+                    (operationName == null || operationName.equals(((OperationDefinition) definition).getName()))) {
+                    return ((OperationDefinition) definition).getOperation() == OperationDefinition.Operation.MUTATION;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Left to the servlet, which answers with the error
+        }
+        return false;
+    }
+
+    /**
+     * @return the result of the operation, or an error if it is not done by the deadline of the batch.
+     */
+    private byte[] await(Future<byte[]> result, long deadline) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Batched GraphQL operation did not complete in {} seconds", timeoutSeconds);
+            return error("Operation timed out after " + timeoutSeconds + " seconds");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error("Operation interrupted");
+        } catch (ExecutionException e) {
+            log.warn("Batched GraphQL operation failed", e.getCause());
+            return error("Operation failed: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Execute one operation of the batch through the GraphQL servlet.
+     *
+     * @return the JSON result of the operation.
+     */
+    private byte[] execute(DetachedRequest operationRequest, HttpServletResponse batchResponse, SecurityContext securityContext) {
+        SecurityContext previousContext = SecurityContextHolder.getContext();
+        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+        SecurityContextHolder.setContext(securityContext);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(operationRequest));
+        OperationResponse operationResponse = new OperationResponse(batchResponse);
+        try {
+            graphQLServlet.get().service(operationRequest, operationResponse);
+            byte[] result = operationResponse.getBody();
+            if (operationResponse.status == HttpStatus.OK.value() && result.length > 0) {
+                return result;
+            }
+            return error("Operation failed with status " + operationResponse.status);
+        } catch (ServletException | IOException | RuntimeException e) {
+            log.warn("Batched GraphQL operation failed", e);
+            return error("Operation failed: " + e.getMessage());
+        } finally {
+            SecurityContextHolder.setContext(previousContext);
+            RequestContextHolder.setRequestAttributes(previousAttributes);
+        }
+    }
+
+    private byte[] error(String message) {
+        try {
+            return objectMapper.writeValueAsBytes(Collections.singletonMap("errors",
+                Collections.singletonList(Collections.singletonMap("message", message))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Captures the result of one operation of a batch, without touching the response of the batch, which is
+     * shared by the concurrent operations.
+     */
+    private static final class OperationResponse extends HttpServletResponseWrapper {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        private PrintWriter writer;
+
+        private int status = HttpStatus.OK.value();
+
+        private OperationResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private byte[] getBody() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return body.toByteArray();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    body.write(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            this.status = sc;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public void setStatus(int sc, String sm) {
+            this.status = sc;
+        }
+
+        @Override
+        public void sendError(int sc) {
+            this.status = sc;
+        }
+
+        @Override
+        public void sendError(int sc, String msg) {
+            this.status = sc;
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public void setContentType(String type) {
+            // The batch response is always JSON
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            // Computed for the whole batch
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            // Computed for the whole batch
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            // Headers of single operations do not apply to the batch
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            // Headers of single operations do not apply to the batch
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            // Headers of single operations do not apply to the batch
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            // Headers of single operations do not apply to the batch
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            // Headers of single operations do not apply to the batch
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            // Headers of single operations do not apply to the batch
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            // Always UTF-8
+        }
+
+        @Override
+        public void flushBuffer() {
+            // Nothing is sent before the whole batch is done
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public void resetBuffer() {
+            body.reset();
+        }
+
+        @Override
+        public void reset() {
+            body.reset();
+            status = HttpStatus.OK.value();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.develoment_test.config.graphql;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.servlet.GraphQLInvocationInputFactory;
+import graphql.servlet.GraphQLObjectMapper;
+import graphql.servlet.GraphQLQueryInvoker;
+import graphql.servlet.internal.GraphQLRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Lets internal clients send their requests and get the results in Smile or CBOR instead of JSON, with the
+ * {@code Content-Type} and {@code Accept} headers.
+ * <p>
+ * The single operations sent or accepted in a binary format are executed here, and their result is written by a
+ * generator of the format with the servlet's own object mapper, so it holds the same tree as the JSON result. The
+ * JSON requests accepting JSON are left to the {@link StreamingResponseFilter} and the servlet, as are batches and
+ * queries using {@code @defer}.
+ */
+public class BinaryFormatsFilter extends OncePerRequestFilter {
+
+    private final Supplier<GraphQLObjectMapper> graphQLObjectMapper;
+
+    private final Supplier<GraphQLInvocationInputFactory> invocationInputFactory;
+
+    private final Supplier<GraphQLQueryInvoker> queryInvoker;
+
+    public BinaryFormatsFilter(Supplier<GraphQLObjectMapper> graphQLObjectMapper,
+                               Supplier<GraphQLInvocationInputFactory> invocationInputFactory,
+                               Supplier<GraphQLQueryInvoker> queryInvoker) {
+        this.graphQLObjectMapper = graphQLObjectMapper;
+        this.invocationInputFactory = invocationInputFactory;
+        this.queryInvoker = queryInvoker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        // The results of the other filters and of the servlet depend on the Accept header too
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        GraphQLRequestBody body = GraphQLRequestBody.of(request, graphQLObjectMapper.get().getJacksonMapper());
+        GraphQLFormat responseFormat = responseFormat(request);
+        if (body == null || (body.getFormat() == GraphQLFormat.JSON && responseFormat == GraphQLFormat.JSON) ||
+            DeferredResponseFilter.acceptsIncrementalDelivery(request)) {
+            filterChain.doFilter(body == null ? request : body.wrap(request), response);
+            return;
+        }
+        GraphQLRequest graphQLRequest = body.readRequest(graphQLObjectMapper.get());
+        if (graphQLRequest == null || graphQLRequest.getQuery() == null || graphQLRequest.getQuery().contains("@defer")) {
+            filterChain.doFilter(body.wrap(request), response);
+            return;
+        }
+
+        ExecutionResult result = queryInvoker.get().query(invocationInputFactory.get().create(graphQLRequest, request));
+        GraphQLObjectMapper mapper = graphQLObjectMapper.get();
+        ObjectMapper jacksonMapper = mapper.getJacksonMapper();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(responseFormat == GraphQLFormat.JSON ? "application/json;charset=UTF-8" :
+            responseFormat.getMediaType());
+        try (JsonGenerator generator = responseFormat.factory(jacksonMapper).createGenerator(response.getOutputStream(),
+            JsonEncoding.UTF8)) {
+            // The servlet stream is closed by the container
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            jacksonMapper.writeValue(generator, mapper.createResultFromExecutionResult(result));
+        }
+    }
+
+    /**
+     * @param request the HTTP request.
+     * @return the format of the response accepted by the client, JSON unless it asks for a binary format.
+     */
+    static GraphQLFormat responseFormat(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null) {
+            if (accept.contains(GraphQLFormat.SMILE.getMediaType())) {
+                return GraphQLFormat.SMILE;
+            }
+            if (accept.contains(GraphQLFormat.CBOR.getMediaType())) {
+                return GraphQLFormat.CBOR;
+            }
+        }
+        return GraphQLFormat.JSON;
+    }
+}
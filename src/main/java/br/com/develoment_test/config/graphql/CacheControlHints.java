@@ -0,0 +1,102 @@
+package br.com.develoment_test.config.graphql;
+
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.EnumValue;
+import graphql.language.IntValue;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code @cacheControl(maxAge: Int, scope: CacheControlScope)} hints of the fields of a GraphQL schema.
+ * <p>
+ * Hints are read from the definitions of the fields of the built schema, as graphql-java-tools keeps them on the
+ * fields but does not turn their directives into schema directives.
+ */
+public class CacheControlHints {
+
+    static final String DIRECTIVE = "cacheControl";
+
+    public enum Scope {
+        PUBLIC, PRIVATE
+    }
+
+    private final GraphQLSchema schema;
+
+    private final Map<String, Hint> hints = new HashMap<>();
+
+    /**
+     * @param schema the built schema.
+     */
+    public CacheControlHints(GraphQLSchema schema) {
+        this.schema = schema;
+        for (GraphQLType type : schema.getAllTypesAsList()) {
+            if (type instanceof GraphQLObjectType) {
+                for (GraphQLFieldDefinition field : ((GraphQLObjectType) type).getFieldDefinitions()) {
+                    if (field.getDefinition() == null) {
+                        continue;
+                    }
+                    for (Directive directive : field.getDefinition().getDirectives()) {
+                        if (DIRECTIVE.equals(directive.getName())) {
+                            hints.put(type.getName() + "." + field.getName(), toHint(directive));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Hint toHint(Directive directive) {
+        int maxAge = 0;
+        Scope scope = Scope.PUBLIC;
+        for (Argument argument : directive.getArguments()) {
+            if ("maxAge".equals(argument.getName()) && argument.getValue() instanceof IntValue) {
+                maxAge = ((IntValue) argument.getValue()).getValue().intValue();
+            } else if ("scope".equals(argument.getName()) && argument.getValue() instanceof EnumValue) {
+                scope = Scope.valueOf(((EnumValue) argument.getValue()).getName());
+            }
+        }
+        return new Hint(maxAge, scope);
+    }
+
+    /**
+     * @return the schema the hints were read from.
+     */
+    GraphQLSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @param typeName the name of the parent type.
+     * @param fieldName the name of the field.
+     * @return the hint of the field, or {@code null} if it has none.
+     */
+    Hint get(String typeName, String fieldName) {
+        return hints.get(typeName + "." + fieldName);
+    }
+
+    static final class Hint {
+
+        private final int maxAge;
+
+        private final Scope scope;
+
+        private Hint(int maxAge, Scope scope) {
+            this.maxAge = maxAge;
+            this.scope = scope;
+        }
+
+        int getMaxAge() {
+            return maxAge;
+        }
+
+        Scope getScope() {
+            return scope;
+        }
+    }
+}
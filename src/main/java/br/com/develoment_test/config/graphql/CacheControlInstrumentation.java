@@ -0,0 +1,168 @@
+package br.com.develoment_test.config.graphql;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Definition;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.TypeName;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLModifiedType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.servlet.GraphQLContext;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Computes the {@link CacheControlPolicy} of each query from the {@link CacheControlHints} of its fields, for the
+ * {@link ResponseCacheFilter}.
+ * <p>
+ * The hints are read once from the schema executing the queries, and again only if the schema changes.
+ * <p>
+ * The max age of a query is the smallest max age of its hinted fields, and its scope is private if any of them is.
+ * A query is not cacheable if one of its root fields has no hint, or if its result has errors.
+ */
+public class CacheControlInstrumentation extends SimpleInstrumentation {
+
+    private volatile CacheControlHints hints;
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        httpRequest(executionContext.getContext()).ifPresent(request ->
+            request.setAttribute(ResponseCacheFilter.POLICY_ATTRIBUTE, policy(executionContext)));
+        return super.beginExecuteOperation(parameters);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters) {
+        if (executionResult.getErrors() != null && !executionResult.getErrors().isEmpty()) {
+            httpRequest(parameters.getExecutionInput().getContext()).ifPresent(request ->
+                request.removeAttribute(ResponseCacheFilter.POLICY_ATTRIBUTE));
+        }
+        return super.instrumentExecutionResult(executionResult, parameters);
+    }
+
+    private static Optional<HttpServletRequest> httpRequest(Object context) {
+        return context instanceof GraphQLContext ? ((GraphQLContext) context).getHttpServletRequest() : Optional.empty();
+    }
+
+    private CacheControlPolicy policy(ExecutionContext executionContext) {
+        OperationDefinition operation = executionContext.getOperationDefinition();
+        if (operation.getOperation() != OperationDefinition.Operation.QUERY) {
+            return CacheControlPolicy.NOT_CACHEABLE;
+        }
+        Walk walk = new Walk(hints(executionContext.getGraphQLSchema()), executionContext.getDocument().getDefinitions());
+        walk.visit(operation.getSelectionSet(), executionContext.getGraphQLSchema().getQueryType(), true);
+        if (!walk.cacheable || walk.maxAge == Integer.MAX_VALUE) {
+            return CacheControlPolicy.NOT_CACHEABLE;
+        }
+        return new CacheControlPolicy(walk.maxAge, walk.scope, walk.typeNames);
+    }
+
+    private CacheControlHints hints(GraphQLSchema schema) {
+        CacheControlHints hints = this.hints;
+        if (hints == null || hints.getSchema() != schema) {
+            hints = new CacheControlHints(schema);
+            this.hints = hints;
+        }
+        return hints;
+    }
+
+    private static final class Walk {
+
+        private final CacheControlHints hints;
+
+        private final GraphQLSchema schema;
+
+        private final Map<String, FragmentDefinition> fragments = new HashMap<>();
+
+        private final Set<String> typeNames = new HashSet<>();
+
+        private boolean cacheable = true;
+
+        private int maxAge = Integer.MAX_VALUE;
+
+        private CacheControlHints.Scope scope = CacheControlHints.Scope.PUBLIC;
+
+        private Walk(CacheControlHints hints, Iterable<Definition> definitions) {
+            this.hints = hints;
+            this.schema = hints.getSchema();
+            for (Definition definition : definitions) {
+                if (definition instanceof FragmentDefinition) {
+                    fragments.put(((FragmentDefinition) definition).getName(), (FragmentDefinition) definition);
+                }
+            }
+        }
+
+        private void visit(SelectionSet selectionSet, GraphQLFieldsContainer parentType, boolean root) {
+            if (selectionSet == null || parentType == null || !cacheable) {
+                return;
+            }
+            for (Selection selection : selectionSet.getSelections()) {
+                if (selection instanceof Field) {
+                    visitField((Field) selection, parentType, root);
+                } else if (selection instanceof InlineFragment) {
+                    InlineFragment fragment = (InlineFragment) selection;
+                    visit(fragment.getSelectionSet(), typeCondition(fragment.getTypeCondition(), parentType), root);
+                } else if (selection instanceof FragmentSpread) {
+                    FragmentDefinition fragment = fragments.get(((FragmentSpread) selection).getName());
+                    if (fragment != null) {
+                        visit(fragment.getSelectionSet(), typeCondition(fragment.getTypeCondition(), parentType), root);
+                    }
+                }
+            }
+        }
+
+        private void visitField(Field field, GraphQLFieldsContainer parentType, boolean root) {
+            if ("__typename".equals(field.getName())) {
+                return;
+            }
+            GraphQLFieldDefinition definition = parentType.getFieldDefinition(field.getName());
+            CacheControlHints.Hint hint = hints.get(parentType.getName(), field.getName());
+            if (definition == null || (root && hint == null)) {
+                cacheable = false;
+                return;
+            }
+            if (hint != null) {
+                maxAge = Math.min(maxAge, hint.getMaxAge());
+                if (hint.getScope() == CacheControlHints.Scope.PRIVATE) {
+                    scope = CacheControlHints.Scope.PRIVATE;
+                }
+            }
+            GraphQLType type = definition.getType();
+            while (type instanceof GraphQLModifiedType) {
+                type = ((GraphQLModifiedType) type).getWrappedType();
+            }
+            typeNames.add(type.getName());
+            if (type instanceof GraphQLFieldsContainer) {
+                visit(field.getSelectionSet(), (GraphQLFieldsContainer) type, false);
+            }
+        }
+
+        private GraphQLFieldsContainer typeCondition(TypeName typeCondition, GraphQLFieldsContainer parentType) {
+            if (typeCondition == null) {
+                return parentType;
+            }
+            GraphQLType type = schema.getType(typeCondition.getName());
+            return type instanceof GraphQLFieldsContainer ? (GraphQLFieldsContainer) type : parentType;
+        }
+    }
+}
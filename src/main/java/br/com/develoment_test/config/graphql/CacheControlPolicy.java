@@ -0,0 +1,43 @@
+package br.com.develoment_test.config.graphql;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * How long, and for whom, the result of an operation can be cached.
+ */
+final class CacheControlPolicy {
+
+    static final CacheControlPolicy NOT_CACHEABLE = new CacheControlPolicy(0, CacheControlHints.Scope.PRIVATE, Collections.emptySet());
+
+    private final int maxAge;
+
+    private final CacheControlHints.Scope scope;
+
+    private final Set<String> typeNames;
+
+    CacheControlPolicy(int maxAge, CacheControlHints.Scope scope, Set<String> typeNames) {
+        this.maxAge = maxAge;
+        this.scope = scope;
+        this.typeNames = typeNames;
+    }
+
+    boolean isCacheable() {
+        return maxAge > 0;
+    }
+
+    int getMaxAge() {
+        return maxAge;
+    }
+
+    CacheControlHints.Scope getScope() {
+        return scope;
+    }
+
+    /**
+     * @return the names of the types of the selected fields, used to evict the results when these types change.
+     */
+    Set<String> getTypeNames() {
+        return typeNames;
+    }
+}
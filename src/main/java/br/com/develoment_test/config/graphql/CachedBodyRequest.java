@@ -0,0 +1,86 @@
+package br.com.develoment_test.config.graphql;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * A request whose body was already read by a filter, and can be read again.
+ */
+class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final Supplier<byte[]> body;
+
+    CachedBodyRequest(HttpServletRequest request, byte[] body) {
+        this(request, () -> body);
+    }
+
+    /**
+     * @param request the request.
+     * @param body the body, supplied each time it is read.
+     */
+    CachedBodyRequest(HttpServletRequest request, Supplier<byte[]> body) {
+        super(request);
+        this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return inputStream(body.get());
+    }
+
+    /**
+     * @param body the body of a request.
+     * @return a stream reading the body.
+     */
+    static ServletInputStream inputStream(byte[] body) {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.get().length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.get().length;
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.Function;
+
+/**
+ * Keeps the parsed and validated documents of the most recent queries, so that the queries sent again and again
+ * by the clients are not parsed and validated for each request.
+ * <p>
+ * The documents are keyed by the SHA-256 hash of their query rather than by the query itself, so that the cache does
+ * not hold the text of large queries. The hash of a persisted query is the one checked by the
+ * {@link PersistedQueryFilter}, other queries are hashed here. Documents with errors are not cached, so that invalid
+ * queries cannot evict the valid ones.
+ */
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    private final LruCache<String, PreparsedDocumentEntry> documents;
+
+    public CachingPreparsedDocumentProvider(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.documents = new LruCache<>(applicationProperties.getGraphql().getDocumentCache().getMaxSize());
+        this.documents.bindTo(meterRegistry, "graphql.documents");
+    }
+
+    @Override
+    public PreparsedDocumentEntry get(String query, Function<String, PreparsedDocumentEntry> computeFunction) {
+        String hash = Hashes.queryHash(query);
+        PreparsedDocumentEntry entry = documents.get(hash);
+        if (entry == null) {
+            entry = computeFunction.apply(query);
+            if (!entry.hasErrors()) {
+                documents.put(hash, entry);
+            }
+        }
+        return entry;
+    }
+}
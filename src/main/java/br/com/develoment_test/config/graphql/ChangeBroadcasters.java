@@ -0,0 +1,71 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import br.com.develoment_test.service.dto.FunctionalityChangeDTO;
+import br.com.develoment_test.service.dto.UserBulkChangeDTO;
+import br.com.develoment_test.service.dto.UserChangeDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Relays the committed changes published by the services to the GraphQL subscriptions of this node.
+ * <p>
+ * Events are broadcast asynchronously, so that the request which made the change does not wait for the subscribers.
+ */
+@Component
+public class ChangeBroadcasters {
+
+    private final SubscriptionBroadcaster<FunctionalityChangeDTO> functionalityChanges;
+
+    private final SubscriptionBroadcaster<UserChangeDTO> userChanges;
+
+    public ChangeBroadcasters(ApplicationProperties applicationProperties, MeterRegistry meterRegistry,
+                              @Qualifier("graphQLSubscriptionExecutor") Executor graphQLSubscriptionExecutor) {
+        int bufferSize = applicationProperties.getGraphql().getSubscriptions().getBufferSize();
+        this.functionalityChanges = newBroadcaster("functionalityChanged", bufferSize, meterRegistry, graphQLSubscriptionExecutor);
+        this.userChanges = newBroadcaster("userChanged", bufferSize, meterRegistry, graphQLSubscriptionExecutor);
+    }
+
+    private static <T> SubscriptionBroadcaster<T> newBroadcaster(String subscription, int bufferSize, MeterRegistry meterRegistry,
+                                                                 Executor executor) {
+        SubscriptionBroadcaster<T> broadcaster = new SubscriptionBroadcaster<>(bufferSize,
+            meterRegistry.counter("graphql.subscriptions.dropped", "subscription", subscription), executor);
+        Gauge.builder("graphql.subscriptions.active", broadcaster, SubscriptionBroadcaster::getSubscriberCount)
+            .description("Number of open GraphQL subscriptions")
+            .tag("subscription", subscription)
+            .register(meterRegistry);
+        return broadcaster;
+    }
+
+    public SubscriptionBroadcaster<FunctionalityChangeDTO> getFunctionalityChanges() {
+        return functionalityChanges;
+    }
+
+    public SubscriptionBroadcaster<UserChangeDTO> getUserChanges() {
+        return userChanges;
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFunctionalityChange(FunctionalityChangeDTO change) {
+        functionalityChanges.broadcast(change);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeDTO change) {
+        userChanges.broadcast(change);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserBulkChange(UserBulkChangeDTO bulkChange) {
+        bulkChange.getChanges().forEach(userChanges::broadcast);
+    }
+}
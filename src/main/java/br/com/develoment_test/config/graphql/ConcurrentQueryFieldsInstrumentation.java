@@ -0,0 +1,73 @@
+package br.com.develoment_test.config.graphql;
+
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.language.OperationDefinition;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Resolves the root fields of a query concurrently on a dedicated executor, so that the latency of a query with
+ * several root fields is the latency of its slowest field.
+ * <p>
+ * The security context of the request is set on the executor thread for the duration of the fetch, so the
+ * {@code @PreAuthorize} checks of the resolvers are unchanged. Each resolver opens its transactions through the
+ * services it calls, on the thread it runs on. Mutations, whose root fields must run one after the other, and
+ * queries with a single root field are resolved on the request thread.
+ */
+public class ConcurrentQueryFieldsInstrumentation extends SimpleInstrumentation {
+
+    private final Executor executor;
+
+    public ConcurrentQueryFieldsInstrumentation(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters) {
+        OperationDefinition operation = parameters.getExecutionContext().getOperationDefinition();
+        DataFetchingEnvironment environment = parameters.getEnvironment();
+        if (operation.getOperation() != OperationDefinition.Operation.QUERY ||
+            operation.getSelectionSet().getSelections().size() < 2 ||
+            environment.getParentType() != environment.getGraphQLSchema().getQueryType() ||
+            parameters.getField().getName().startsWith("__")) {
+            return dataFetcher;
+        }
+        return env -> fetchAsync(dataFetcher, env);
+    }
+
+    private CompletableFuture<Object> fetchAsync(DataFetcher<?> dataFetcher, DataFetchingEnvironment environment) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            SecurityContext previousContext = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                Object value = dataFetcher.get(environment);
+                if (value instanceof CompletionStage) {
+                    ((CompletionStage<?>) value).whenComplete((completed, throwable) -> {
+                        if (throwable != null) {
+                            result.completeExceptionally(throwable);
+                        } else {
+                            result.complete(completed);
+                        }
+                    });
+                } else {
+                    result.complete(value);
+                }
+            } catch (Throwable t) {
+                // Not wrapped, so that the GraphQL error shows the exception of the resolver
+                result.completeExceptionally(t);
+            } finally {
+                SecurityContextHolder.setContext(previousContext);
+            }
+        });
+        return result;
+    }
+}
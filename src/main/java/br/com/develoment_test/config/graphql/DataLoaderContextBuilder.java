@@ -0,0 +1,46 @@
+package br.com.develoment_test.config.graphql;
+
+import graphql.servlet.GraphQLContext;
+import graphql.servlet.GraphQLContextBuilder;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.websocket.server.HandshakeRequest;
+
+/**
+ * Gives each GraphQL request its own {@link org.dataloader.DataLoaderRegistry}.
+ * <p>
+ * The GraphQL servlet dispatches the loaders of the context registry once each level of the query is resolved. The
+ * contexts built for the WebSocket operations, one for each operation, get loaders which do not cache values, as all
+ * the events of a subscription are resolved with its context.
+ */
+@Component
+public class DataLoaderContextBuilder implements GraphQLContextBuilder {
+
+    private final GraphQLDataLoaders graphQLDataLoaders;
+
+    public DataLoaderContextBuilder(GraphQLDataLoaders graphQLDataLoaders) {
+        this.graphQLDataLoaders = graphQLDataLoaders;
+    }
+
+    @Override
+    public GraphQLContext build(HttpServletRequest httpServletRequest) {
+        GraphQLContext context = new GraphQLContext(httpServletRequest);
+        context.setDataLoaderRegistry(graphQLDataLoaders.newRegistry());
+        return context;
+    }
+
+    @Override
+    public GraphQLContext build(HandshakeRequest handshakeRequest) {
+        GraphQLContext context = new GraphQLContext(handshakeRequest);
+        context.setDataLoaderRegistry(graphQLDataLoaders.newSubscriptionRegistry());
+        return context;
+    }
+
+    @Override
+    public GraphQLContext build() {
+        GraphQLContext context = new GraphQLContext();
+        context.setDataLoaderRegistry(graphQLDataLoaders.newSubscriptionRegistry());
+        return context;
+    }
+}
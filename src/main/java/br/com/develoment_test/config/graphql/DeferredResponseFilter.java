@@ -0,0 +1,241 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.servlet.GraphQLInvocationInputFactory;
+import graphql.servlet.GraphQLQueryInvoker;
+import graphql.servlet.internal.GraphQLRequest;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Sends the results of the queries using {@code @defer} incrementally, as a {@code multipart/mixed} response, to
+ * the clients accepting it.
+ * <p>
+ * The first part holds the result without the deferred fields, and is flushed as soon as it is resolved. Each
+ * deferred field is then written and flushed in its own part, with its path, as soon as it completes, and a last
+ * part tells the client that nothing follows. The deferred results are requested one at a time, so the server only
+ * holds the part being written. If they fail, or do not complete in time, the last part holds an error instead.
+ * <p>
+ * Other requests, and clients not accepting {@code multipart/mixed}, get the usual single JSON result.
+ */
+public class DeferredResponseFilter extends OncePerRequestFilter {
+
+    private final Logger log = LoggerFactory.getLogger(DeferredResponseFilter.class);
+
+    static final String MULTIPART_MIXED = "multipart/mixed";
+
+    private static final byte[] DELIMITER = "\r\n---\r\nContent-Type: application/json; charset=utf-8\r\n\r\n"
+        .getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] END = "\r\n-----\r\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final String DISCONNECTED = "Client disconnected";
+
+    private final ObjectMapper objectMapper;
+
+    private final Supplier<GraphQLInvocationInputFactory> invocationInputFactory;
+
+    private final Supplier<GraphQLQueryInvoker> queryInvoker;
+
+    private final long timeoutSeconds;
+
+    public DeferredResponseFilter(ObjectMapper objectMapper, Supplier<GraphQLInvocationInputFactory> invocationInputFactory,
+                                  Supplier<GraphQLQueryInvoker> queryInvoker, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        this.invocationInputFactory = invocationInputFactory;
+        this.queryInvoker = queryInvoker;
+        this.timeoutSeconds = applicationProperties.getGraphql().getDeferred().getTimeoutSeconds();
+    }
+
+    /**
+     * @param request the HTTP request.
+     * @return whether the client accepts incremental results, which must then not be buffered.
+     */
+    static boolean acceptsIncrementalDelivery(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MULTIPART_MIXED);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (!HttpMethod.POST.matches(request.getMethod()) || !acceptsIncrementalDelivery(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        GraphQLRequestBody body = GraphQLRequestBody.of(request, objectMapper);
+        JsonNode json = body == null ? null : body.getOperation();
+        String query = json == null ? null : json.path("query").asText(null);
+        if (query == null || !query.contains("@defer")) {
+            filterChain.doFilter(body == null ? request : body.wrap(request), response);
+            return;
+        }
+
+        GraphQLRequest graphQLRequest = new GraphQLRequest(query, variables(json.get("variables")),
+            json.path("operationName").asText(null));
+        ExecutionResult result = queryInvoker.get().query(invocationInputFactory.get().create(graphQLRequest, request));
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MULTIPART_MIXED + "; boundary=\"-\"");
+        ServletOutputStream out = response.getOutputStream();
+        Object deferred = result.getExtensions() == null ? null : result.getExtensions().get(GraphQL.DEFERRED_RESULTS);
+        writePart(out, result, deferred instanceof Publisher);
+        if (deferred instanceof Publisher) {
+            @SuppressWarnings("unchecked")
+            Publisher<ExecutionResult> deferredResults = (Publisher<ExecutionResult>) deferred;
+            String error = streamDeferredResults(deferredResults, out);
+            if (DISCONNECTED.equals(error)) {
+                return;
+            }
+            Map<String, Object> last = new LinkedHashMap<>();
+            if (error != null) {
+                last.put("errors", Collections.singletonList(Collections.singletonMap("message", error)));
+            }
+            last.put("hasNext", false);
+            writePart(out, last);
+        }
+        out.write(END);
+        out.flush();
+    }
+
+    private Map<String, Object> variables(JsonNode variables) throws IOException {
+        if (variables == null || variables.isNull()) {
+            return Collections.emptyMap();
+        }
+        JsonNode node = variables.isTextual() ? objectMapper.readTree(variables.asText()) : variables;
+        return objectMapper.convertValue(node, new TypeReference<Map<String, Object>>() { });
+    }
+
+    private void writePart(ServletOutputStream out, ExecutionResult result, boolean hasNext) throws IOException {
+        Map<String, Object> part = new LinkedHashMap<>(result.toSpecification());
+        Object extensions = part.get("extensions");
+        if (extensions instanceof Map && ((Map<?, ?>) extensions).containsKey(GraphQL.DEFERRED_RESULTS)) {
+            Map<Object, Object> otherExtensions = new LinkedHashMap<>((Map<?, ?>) extensions);
+            otherExtensions.remove(GraphQL.DEFERRED_RESULTS);
+            if (otherExtensions.isEmpty()) {
+                part.remove("extensions");
+            } else {
+                part.put("extensions", otherExtensions);
+            }
+        }
+        part.put("hasNext", hasNext);
+        writePart(out, part);
+    }
+
+    private void writePart(ServletOutputStream out, Map<String, Object> part) throws IOException {
+        out.write(DELIMITER);
+        out.write(objectMapper.writeValueAsBytes(part));
+        out.flush();
+    }
+
+    /**
+     * Write the deferred results as they complete, requesting the next one once the previous is flushed, and waits
+     * for them until the timeout.
+     *
+     * @return {@code null} when all the results were written, {@link #DISCONNECTED} if the client went away, or the
+     * error to send to the client.
+     */
+    private String streamDeferredResults(Publisher<ExecutionResult> deferredResults, ServletOutputStream out) {
+        DeferredResultsWriter writer = new DeferredResultsWriter(out);
+        deferredResults.subscribe(writer);
+        try {
+            return writer.done.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Deferred GraphQL results did not complete in {} seconds", timeoutSeconds);
+            return "Deferred results timed out";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Deferred results interrupted";
+        } catch (ExecutionException e) {
+            // The future is never completed exceptionally
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // Once stopped, nothing else is written by the subscriber
+            writer.stop();
+        }
+    }
+
+    private final class DeferredResultsWriter implements Subscriber<ExecutionResult> {
+
+        private final ServletOutputStream out;
+
+        private final CompletableFuture<String> done = new CompletableFuture<>();
+
+        private Subscription subscription;
+
+        private boolean stopped;
+
+        private DeferredResultsWriter(ServletOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public synchronized void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public synchronized void onNext(ExecutionResult result) {
+            if (stopped) {
+                return;
+            }
+            try {
+                writePart(out, result, true);
+                subscription.request(1);
+            } catch (IOException e) {
+                log.debug("Client went away during a deferred response: {}", e.getMessage());
+                subscription.cancel();
+                done.complete(DISCONNECTED);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.warn("Deferred GraphQL results failed", t);
+            done.complete("Deferred results failed");
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(null);
+        }
+
+        private synchronized void stop() {
+            if (!stopped) {
+                stopped = true;
+                if (subscription != null && !done.isDone()) {
+                    subscription.cancel();
+                }
+            }
+        }
+    }
+}
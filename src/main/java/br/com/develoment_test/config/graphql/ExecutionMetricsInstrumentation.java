@@ -0,0 +1,199 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import br.com.develoment_test.security.AuthoritiesConstants;
+import br.com.develoment_test.security.SecurityUtils;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.tracing.TracingInstrumentation;
+import graphql.language.OperationDefinition;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLModifiedType;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.servlet.GraphQLContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the duration of the GraphQL operations and of their resolvers to Micrometer, and adds the Apollo tracing
+ * extension to the result when an administrator sends the tracing header. Traced results are not cached by the
+ * {@link ResponseCacheFilter}.
+ * <p>
+ * Operations are timed as {@code graphql.operation}, tagged by operation name and type. The names are given by the
+ * clients, so only the first names seen are kept as tags and the others are counted as {@code other}. Resolvers are
+ * timed as {@code graphql.field}, tagged by {@code Type.field}: the root fields, and the nested fields of object
+ * types, which are the ones with resolvers of their own. Scalar properties are not timed.
+ */
+public class ExecutionMetricsInstrumentation extends SimpleInstrumentation {
+
+    private static final String OTHER = "other";
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.Graphql.Tracing properties;
+
+    private final TracingInstrumentation apolloTracing = new TracingInstrumentation();
+
+    private final Set<String> operationNames = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentMap<String, Timer> fieldTimers = new ConcurrentHashMap<>();
+
+    public ExecutionMetricsInstrumentation(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.properties = applicationProperties.getGraphql().getTracing();
+    }
+
+    @Override
+    public InstrumentationState createState() {
+        return new TracingState();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters) {
+        TracingState state = parameters.getInstrumentationState();
+        state.startNanos = System.nanoTime();
+        if (isApolloTracingRequested(parameters.getContext())) {
+            state.apolloState = apolloTracing.createState();
+        }
+        return super.beginExecution(parameters);
+    }
+
+    private boolean isApolloTracingRequested(Object context) {
+        return properties.isApolloEnabled() &&
+            httpRequest(context).map(request -> request.getHeader(properties.getHeader()) != null).orElse(false) &&
+            SecurityUtils.isCurrentUserInRole(AuthoritiesConstants.ADMIN);
+    }
+
+    private static Optional<HttpServletRequest> httpRequest(Object context) {
+        return context instanceof GraphQLContext ? ((GraphQLContext) context).getHttpServletRequest() : Optional.empty();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters) {
+        TracingState state = parameters.getInstrumentationState();
+        OperationDefinition operation = parameters.getExecutionContext().getOperationDefinition();
+        state.operationName = boundedOperationName(operation.getName());
+        state.operationType = operation.getOperation().name().toLowerCase();
+        return super.beginExecuteOperation(parameters);
+    }
+
+    private String boundedOperationName(String name) {
+        if (name == null || name.isEmpty()) {
+            return ANONYMOUS;
+        }
+        if (operationNames.contains(name)) {
+            return name;
+        }
+        if (operationNames.size() < properties.getMaxOperationNames() && operationNames.add(name)) {
+            return name;
+        }
+        return OTHER;
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters) {
+        TracingState state = parameters.getInstrumentationState();
+        InstrumentationContext<Object> apolloContext = state.apolloState == null ? null :
+            apolloTracing.beginFieldFetch(parameters.withNewState(state.apolloState));
+        Timer timer = fieldTimer(parameters);
+        if (timer == null && apolloContext == null) {
+            return super.beginFieldFetch(parameters);
+        }
+        long start = System.nanoTime();
+        return new InstrumentationContext<Object>() {
+            @Override
+            public void onDispatched(CompletableFuture<Object> result) {
+                if (apolloContext != null) {
+                    apolloContext.onDispatched(result);
+                }
+            }
+
+            @Override
+            public void onCompleted(Object result, Throwable t) {
+                if (timer != null) {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                if (apolloContext != null) {
+                    apolloContext.onCompleted(result, t);
+                }
+            }
+        };
+    }
+
+    private Timer fieldTimer(InstrumentationFieldFetchParameters parameters) {
+        String fieldName = parameters.getField().getName();
+        if (fieldName.startsWith("__")) {
+            return null;
+        }
+        GraphQLType parentType = parameters.getEnvironment().getParentType();
+        if (!isRootType(parameters.getEnvironment().getGraphQLSchema(), parentType)) {
+            GraphQLType type = parameters.getField().getType();
+            while (type instanceof GraphQLModifiedType) {
+                type = ((GraphQLModifiedType) type).getWrappedType();
+            }
+            if (type instanceof GraphQLScalarType || type instanceof GraphQLEnumType) {
+                return null;
+            }
+        }
+        String coordinate = parentType.getName() + "." + fieldName;
+        return fieldTimers.computeIfAbsent(coordinate, key -> Timer.builder("graphql.field")
+            .description("Duration of the GraphQL resolvers")
+            .tag("field", key)
+            .register(meterRegistry));
+    }
+
+    private static boolean isRootType(GraphQLSchema schema, GraphQLType type) {
+        return type == schema.getQueryType() || type == schema.getMutationType() || type == schema.getSubscriptionType();
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters) {
+        TracingState state = parameters.getInstrumentationState();
+        boolean failed = executionResult.getErrors() != null && !executionResult.getErrors().isEmpty();
+        Timer.builder("graphql.operation")
+            .description("Duration of the GraphQL operations")
+            .tag("operation", state.operationName)
+            .tag("type", state.operationType)
+            .tag("outcome", failed ? "error" : "success")
+            .register(meterRegistry)
+            .record(System.nanoTime() - state.startNanos, TimeUnit.NANOSECONDS);
+        if (state.apolloState != null) {
+            // A traced result must not be cached for the other callers
+            httpRequest(parameters.getContext()).ifPresent(request ->
+                request.removeAttribute(ResponseCacheFilter.POLICY_ATTRIBUTE));
+            return apolloTracing.instrumentExecutionResult(executionResult, parameters.withNewState(state.apolloState));
+        }
+        return super.instrumentExecutionResult(executionResult, parameters);
+    }
+
+    private static final class TracingState implements InstrumentationState {
+
+        private long startNanos = System.nanoTime();
+
+        /**
+         * Stays {@code invalid} for the documents rejected before their execution.
+         */
+        private String operationName = "invalid";
+
+        private String operationType = "invalid";
+
+        private InstrumentationState apolloState;
+    }
+}
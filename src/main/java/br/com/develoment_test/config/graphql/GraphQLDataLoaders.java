@@ -0,0 +1,112 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.domain.Authority;
+import br.com.develoment_test.repository.AuthorityRepository;
+import br.com.develoment_test.repository.UserRepository;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.servlet.GraphQLContext;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link DataLoader}s used by the GraphQL field resolvers to load relationships in batches.
+ * <p>
+ * A new registry is created for each request, so values are only cached for the duration of a query. The events of a
+ * subscription are all resolved with the registry of the subscription, so its loaders batch the loads of each event
+ * but do not cache the values from one event to the next.
+ */
+@Component
+public class GraphQLDataLoaders {
+
+    public static final String AUTHORITY_BY_NAME = "authorityByName";
+
+    public static final String AUTHORITIES_BY_USER_ID = "authoritiesByUserId";
+
+    private final AuthorityRepository authorityRepository;
+
+    private final UserRepository userRepository;
+
+    public GraphQLDataLoaders(AuthorityRepository authorityRepository, UserRepository userRepository) {
+        this.authorityRepository = authorityRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @return a registry with new loaders, to be used by a single request.
+     */
+    public DataLoaderRegistry newRegistry() {
+        return newRegistry(DataLoaderOptions.newOptions());
+    }
+
+    /**
+     * @return a registry with new loaders which do not cache values, to be used by a single subscription.
+     */
+    public DataLoaderRegistry newSubscriptionRegistry() {
+        return newRegistry(DataLoaderOptions.newOptions().setCachingEnabled(false));
+    }
+
+    private DataLoaderRegistry newRegistry(DataLoaderOptions options) {
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        registry.register(AUTHORITY_BY_NAME, new DataLoader<>(authorityByName(), options));
+        registry.register(AUTHORITIES_BY_USER_ID, new DataLoader<>(authoritiesByUserId(), options));
+        return registry;
+    }
+
+    /**
+     * Get a loader of the current request.
+     *
+     * @param environment the environment of the field being resolved.
+     * @param name the name of the loader.
+     * @param <K> the type of the keys.
+     * @param <V> the type of the values.
+     * @return the loader.
+     * @throws IllegalStateException if the request has no loader registry.
+     */
+    public static <K, V> DataLoader<K, V> get(DataFetchingEnvironment environment, String name) {
+        Object context = environment.getContext();
+        if (!(context instanceof GraphQLContext)) {
+            throw new IllegalStateException("No GraphQL context for the current request");
+        }
+        DataLoaderRegistry registry = ((GraphQLContext) context).getDataLoaderRegistry()
+            .orElseThrow(() -> new IllegalStateException("No data loader registry for the current request"));
+        return registry.getDataLoader(name);
+    }
+
+    private BatchLoader<String, Authority> authorityByName() {
+        return names -> CompletableFuture.completedFuture(orderedBy(names,
+            authorityRepository.findAllById(new LinkedHashSet<>(names)).stream()
+                .collect(Collectors.toMap(Authority::getName, Function.identity())),
+            null));
+    }
+
+    private BatchLoader<Long, List<Authority>> authoritiesByUserId() {
+        return userIds -> {
+            Map<Long, List<Authority>> authorities = new HashMap<>();
+            for (Object[] row : userRepository.findAllAuthoritiesByIdIn(new LinkedHashSet<>(userIds))) {
+                authorities.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Authority) row[1]);
+            }
+            return CompletableFuture.completedFuture(orderedBy(userIds, authorities, Collections.emptyList()));
+        };
+    }
+
+    private static <K, V> List<V> orderedBy(List<K> keys, Map<K, V> values, V missing) {
+        List<V> result = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            result.add(values.getOrDefault(key, missing));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.develoment_test.config.graphql;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * The formats of the GraphQL requests and results.
+ */
+enum GraphQLFormat {
+
+    JSON("application/json", null),
+
+    SMILE("application/x-jackson-smile", new SmileFactory()),
+
+    CBOR("application/cbor", new CBORFactory());
+
+    private final String mediaType;
+
+    private final JsonFactory factory;
+
+    GraphQLFormat(String mediaType, JsonFactory factory) {
+        this.mediaType = mediaType;
+        this.factory = factory;
+    }
+
+    String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param contentType the content type of a request, may be null.
+     * @return the format of the request, or null if it is not supported.
+     */
+    static GraphQLFormat of(String contentType) {
+        if (contentType == null || contentType.contains("json")) {
+            return JSON;
+        }
+        if (contentType.startsWith(SMILE.mediaType)) {
+            return SMILE;
+        }
+        if (contentType.startsWith(CBOR.mediaType)) {
+            return CBOR;
+        }
+        return null;
+    }
+
+    /**
+     * @param objectMapper the mapper of the JSON format.
+     * @return the factory of the parsers and generators of the format.
+     */
+    JsonFactory factory(ObjectMapper objectMapper) {
+        return factory == null ? objectMapper.getFactory() : factory;
+    }
+}
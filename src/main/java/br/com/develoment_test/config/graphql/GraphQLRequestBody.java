@@ -0,0 +1,174 @@
+package br.com.develoment_test.config.graphql;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import graphql.servlet.GraphQLObjectMapper;
+import graphql.servlet.internal.GraphQLRequest;
+import org.apache.commons.io.IOUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The body of a GraphQL POST request, read and parsed once, then shared by the GraphQL filters through a request
+ * attribute.
+ * <p>
+ * The body is parsed as JSON, or as Smile or CBOR according to its content type, into the tree of its operations.
+ * The filters pass on a request whose body is served from here. A filter changing the operations marks them as
+ * modified, and they are then serialized again for the GraphQL servlet. Other content types, such as the multipart
+ * uploads, are not read.
+ */
+final class GraphQLRequestBody {
+
+    static final String ATTRIBUTE = GraphQLRequestBody.class.getName();
+
+    private final ObjectMapper objectMapper;
+
+    private final GraphQLFormat format;
+
+    private final byte[] content;
+
+    private final JsonNode operations;
+
+    private volatile String hash;
+
+    private volatile byte[] modifiedContent;
+
+    GraphQLRequestBody(ObjectMapper objectMapper, GraphQLFormat format, byte[] content, JsonNode operations) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+        this.content = content;
+        this.operations = operations;
+    }
+
+    /**
+     * Read and parse the body of a request, or get it when a previous filter did.
+     *
+     * @param request the request.
+     * @param objectMapper the mapper parsing the body.
+     * @return the body, or {@code null} if the request is not a POST request of a supported content type.
+     * @throws IOException if the body cannot be read.
+     */
+    static GraphQLRequestBody of(HttpServletRequest request, ObjectMapper objectMapper) throws IOException {
+        GraphQLRequestBody body = (GraphQLRequestBody) request.getAttribute(ATTRIBUTE);
+        if (body != null) {
+            return body;
+        }
+        GraphQLFormat format = GraphQLFormat.of(request.getContentType());
+        if (!HttpMethod.POST.matches(request.getMethod()) || format == null) {
+            return null;
+        }
+        byte[] content = IOUtils.toByteArray(request.getInputStream());
+        body = new GraphQLRequestBody(objectMapper, format, content, parse(objectMapper, format, content));
+        request.setAttribute(ATTRIBUTE, body);
+        return body;
+    }
+
+    private static JsonNode parse(ObjectMapper objectMapper, GraphQLFormat format, byte[] content) throws IOException {
+        try (JsonParser parser = format.factory(objectMapper).createParser(content)) {
+            JsonNode operations = objectMapper.readTree(parser);
+            return operations != null && (operations.isObject() || operations.isArray()) ? operations : null;
+        } catch (JsonProcessingException e) {
+            // Left to the GraphQL servlet, which answers with the error
+            return null;
+        }
+    }
+
+    /**
+     * @param request the request whose body was read.
+     * @return the request serving the body from here, with the last changes of the operations.
+     */
+    HttpServletRequest wrap(HttpServletRequest request) {
+        if (WebUtils.getNativeRequest(request, BodyRequest.class) != null) {
+            return request;
+        }
+        return new BodyRequest(request, this);
+    }
+
+    GraphQLFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the operations of the body, an object or an array of objects, or {@code null} if it is malformed.
+     */
+    JsonNode getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return the single operation of the body, or {@code null} for a batch or a malformed body.
+     */
+    ObjectNode getOperation() {
+        return operations instanceof ObjectNode ? (ObjectNode) operations : null;
+    }
+
+    /**
+     * @param graphQLObjectMapper the object mapper of the GraphQL servlet.
+     * @return the request of the single operation of the body, or {@code null} if it is not a single valid operation.
+     */
+    GraphQLRequest readRequest(GraphQLObjectMapper graphQLObjectMapper) {
+        ObjectNode operation = getOperation();
+        if (operation == null) {
+            return null;
+        }
+        try (JsonParser parser = graphQLObjectMapper.getJacksonMapper().treeAsTokens(operation)) {
+            return graphQLObjectMapper.getGraphQLRequestMapper().readValue(parser);
+        } catch (IOException e) {
+            // Left to the GraphQL servlet, which answers with the error
+            return null;
+        }
+    }
+
+    boolean isBatch() {
+        return operations != null && operations.isArray();
+    }
+
+    /**
+     * @return the lower-case hexadecimal SHA-256 hash of the body as sent by the client.
+     */
+    String getHash() {
+        if (hash == null) {
+            hash = Hashes.sha256Hex(content);
+        }
+        return hash;
+    }
+
+    /**
+     * Tell that the operations were changed, so that they are serialized again for the GraphQL servlet.
+     */
+    void setModified() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length);
+        try (JsonGenerator generator = format.factory(objectMapper).createGenerator(out)) {
+            objectMapper.writeTree(generator, operations);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        modifiedContent = out.toByteArray();
+    }
+
+    /**
+     * @return the body read by the GraphQL servlet.
+     */
+    byte[] getContent() {
+        return modifiedContent == null ? content : modifiedContent;
+    }
+
+    /**
+     * A request whose body is served from a {@link GraphQLRequestBody}.
+     */
+    private static final class BodyRequest extends CachedBodyRequest {
+
+        private BodyRequest(HttpServletRequest request, GraphQLRequestBody body) {
+            super(request, body::getContent);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.develoment_test.config.graphql;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Hash functions shared by the GraphQL filters.
+ */
+final class Hashes {
+
+    private static final String QUERY_HASHES_ATTRIBUTE = Hashes.class.getName() + ".queryHashes";
+
+    private Hashes() {
+    }
+
+    /**
+     * @param content the bytes to hash.
+     * @return the lower-case hexadecimal SHA-256 hash of the bytes.
+     */
+    static String sha256Hex(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Remember the hash of a query for the current request, so that it is not computed again.
+     *
+     * @param request the request.
+     * @param query the query.
+     * @param hash the SHA-256 hash of the query, checked by the caller.
+     */
+    @SuppressWarnings("unchecked")
+    static void putQueryHash(HttpServletRequest request, String query, String hash) {
+        Map<String, String> queryHashes = (Map<String, String>) request.getAttribute(QUERY_HASHES_ATTRIBUTE);
+        if (queryHashes == null) {
+            queryHashes = new HashMap<>();
+            request.setAttribute(QUERY_HASHES_ATTRIBUTE, queryHashes);
+        }
+        queryHashes.put(query, hash.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param query the query.
+     * @return the lower-case hexadecimal SHA-256 hash of the query, as remembered for the current request, or computed.
+     */
+    @SuppressWarnings("unchecked")
+    static String queryHash(String query) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            Map<String, String> queryHashes =
+                (Map<String, String>) requestAttributes.getAttribute(QUERY_HASHES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            String hash = queryHashes == null ? null : queryHashes.get(query);
+            if (hash != null) {
+                return hash;
+            }
+        }
+        return sha256Hex(query.getBytes(StandardCharsets.UTF_8));
+    }
+}
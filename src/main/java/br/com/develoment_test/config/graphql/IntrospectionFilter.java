@@ -0,0 +1,248 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.language.Definition;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the introspection queries of GraphiQL and of the code generation tools from memory, and keeps them from
+ * competing with the other queries.
+ * <p>
+ * The schema does not change while the application runs, so the result of an introspection query is computed once
+ * by the GraphQL servlet, then served with an {@code ETag} made of its hash, answering conditional requests with
+ * {@code 304 Not Modified}. Introspection can be disabled, or limited to a number of requests per minute over
+ * the whole application, answering {@code 429 Too Many Requests} beyond it.
+ */
+public class IntrospectionFilter extends OncePerRequestFilter {
+
+    private static final String QUERY = "query";
+
+    private static final String OPERATION_NAME = "operationName";
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Graphql.Introspection properties;
+
+    private final LruCache<String, CachedIntrospection> results;
+
+    private final RateLimiter rateLimiter;
+
+    private final Counter rejectedCounter;
+
+    public IntrospectionFilter(ObjectMapper objectMapper, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getGraphql().getIntrospection();
+        this.results = new LruCache<>(properties.getMaxSize());
+        this.results.bindTo(meterRegistry, "graphql.introspection");
+        this.rateLimiter = properties.getPermitsPerMinute() > 0 ? new RateLimiter(properties.getPermitsPerMinute()) : null;
+        this.rejectedCounter = meterRegistry.counter("graphql.query.rejected", "reason", "introspection");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        HttpServletRequest cachedRequest = request;
+        GraphQLRequestBody body = null;
+        String query;
+        String operationName;
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            query = request.getParameter(QUERY);
+            operationName = request.getParameter(OPERATION_NAME);
+        } else {
+            body = GraphQLRequestBody.of(request, objectMapper);
+            if (body == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            cachedRequest = body.wrap(request);
+            JsonNode operation = body.getOperation();
+            query = operation == null ? null : operation.path(QUERY).asText(null);
+            operationName = operation == null ? null : operation.path(OPERATION_NAME).asText(null);
+        }
+        if (query == null || !mentionsSchema(query)) {
+            filterChain.doFilter(cachedRequest, response);
+            return;
+        }
+        String hash = body == null ? queryStringHash(request) : body.getHash();
+        // Only the results of introspection queries are cached, so the query is parsed when it is not in the cache
+        CachedIntrospection cached = results.get(hash);
+        if (cached == null && !isIntrospection(query, operationName)) {
+            filterChain.doFilter(cachedRequest, response);
+            return;
+        }
+        if (!properties.isEnabled()) {
+            reject(response, HttpStatus.FORBIDDEN, "Introspection is disabled");
+            return;
+        }
+        if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "60");
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many introspection queries");
+            return;
+        }
+
+        if (cached == null) {
+            ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(cachedRequest, responseWrapper);
+            byte[] result = responseWrapper.getContentAsByteArray();
+            JsonNode json = responseWrapper.getStatus() == HttpServletResponse.SC_OK ? readObject(result) : null;
+            if (json == null || json.has("errors")) {
+                responseWrapper.copyBodyToResponse();
+                return;
+            }
+            cached = new CachedIntrospection(result, responseWrapper.getContentType());
+            results.put(hash, cached);
+        }
+        response.setHeader(HttpHeaders.ETAG, cached.etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains(cached.etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType);
+        response.setContentLength(cached.body.length);
+        response.getOutputStream().write(cached.body);
+    }
+
+    private static String queryStringHash(HttpServletRequest request) {
+        String queryString = request.getQueryString();
+        return Hashes.sha256Hex((queryString == null ? "" : queryString).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JsonNode readObject(byte[] json) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            return node != null && node.isObject() ? node : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return whether the query selects the {@code __schema} or {@code __type} introspection fields, without parsing
+     * it. The {@code __typename} fields added by the clients to their queries do not count.
+     */
+    private static boolean mentionsSchema(String query) {
+        return mentions(query, "__schema") || mentions(query, "__type");
+    }
+
+    private static boolean mentions(String query, String name) {
+        for (int i = query.indexOf(name); i >= 0; i = query.indexOf(name, i + name.length())) {
+            int end = i + name.length();
+            if (end == query.length() || !Character.isJavaIdentifierPart(query.charAt(end))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the executed operation only selects introspection fields.
+     */
+    private static boolean isIntrospection(String query, String operationName) {
+        OperationDefinition executed = null;
+        try {
+            for (Definition definition : new Parser().parseDocument(query).getDefinitions()) {
+                if (definition instanceof OperationDefinition) {
+                    OperationDefinition operation = (OperationDefinition) definition;
+                    if (operationName == null || operationName.isEmpty() || operationName.equals(operation.getName())) {
+                        if (executed != null) {
+                            // Several operations without name, the servlet rejects the request
+                            return false;
+                        }
+                        executed = operation;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // Invalid queries are rejected by the servlet
+            return false;
+        }
+        if (executed == null || executed.getOperation() != OperationDefinition.Operation.QUERY) {
+            return false;
+        }
+        for (Selection selection : executed.getSelectionSet().getSelections()) {
+            if (!(selection instanceof Field) || !((Field) selection).getName().startsWith("__")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        rejectedCounter.increment();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Collections.singletonMap("errors",
+            Collections.singletonList(Collections.singletonMap("message", message))));
+    }
+
+    private static final class CachedIntrospection {
+
+        private final byte[] body;
+
+        private final String contentType;
+
+        private final String etag;
+
+        private CachedIntrospection(byte[] body, String contentType) {
+            this.body = body;
+            this.contentType = contentType;
+            this.etag = "\"" + Hashes.sha256Hex(body).substring(0, 32) + "\"";
+        }
+    }
+
+    /**
+     * A token bucket refilled continuously, holding at most one minute of permits.
+     */
+    private static final class RateLimiter {
+
+        private final double permitsPerNano;
+
+        private final double capacity;
+
+        private double available;
+
+        private long lastRefillNanos = System.nanoTime();
+
+        private RateLimiter(int permitsPerMinute) {
+            this.capacity = permitsPerMinute;
+            this.available = permitsPerMinute;
+            this.permitsPerNano = permitsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        }
+
+        private synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            available = Math.min(capacity, available + (now - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = now;
+            if (available < 1) {
+                return false;
+            }
+            available--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.develoment_test.config.graphql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * A bounded map evicting its least recently used entries, exposing the standard {@code cache.*} metrics.
+ */
+class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder puts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    LruCache(int maxSize) {
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                boolean evict = size() > maxSize;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    synchronized void put(K key, V value) {
+        puts.increment();
+        entries.put(key, value);
+    }
+
+    /**
+     * Remove the entries whose value matches a predicate.
+     *
+     * @param predicate the predicate.
+     */
+    synchronized void removeIf(Predicate<V> predicate) {
+        entries.values().removeIf(predicate);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Register the {@code cache.gets}, {@code cache.puts}, {@code cache.evictions} and {@code cache.size} meters.
+     *
+     * @param meterRegistry the registry.
+     * @param name the value of the {@code cache} tag.
+     */
+    void bindTo(MeterRegistry meterRegistry, String name) {
+        new CacheMeterBinder(this, name, Tags.empty()) {
+            @Override
+            protected Long size() {
+                return (long) LruCache.this.size();
+            }
+
+            @Override
+            protected long hitCount() {
+                return hits.sum();
+            }
+
+            @Override
+            protected Long missCount() {
+                return misses.sum();
+            }
+
+            @Override
+            protected Long evictionCount() {
+                return evictions.sum();
+            }
+
+            @Override
+            protected long putCount() {
+                return puts.sum();
+            }
+
+            @Override
+            protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+                // No specific metrics
+            }
+        }.bindTo(meterRegistry);
+    }
+}
@@ -0,0 +1,193 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implements the automatic persisted queries of Apollo in front of the GraphQL servlet.
+ * <p>
+ * A client first sends the SHA-256 hash of its query in the {@code persistedQuery} extension, without the query.
+ * When the hash is unknown, the client is answered with a {@code PersistedQueryNotFound} error and sends the query
+ * with its hash, which is then remembered. Known hashes are replaced by their query before the request reaches
+ * the GraphQL servlet, and the {@code extensions} of the request are removed.
+ */
+public class PersistedQueryFilter extends OncePerRequestFilter {
+
+    static final String NOT_FOUND = "PersistedQueryNotFound";
+
+    private static final String PERSISTED_QUERY = "persistedQuery";
+
+    private static final String EXTENSIONS = "extensions";
+
+    private static final String QUERY = "query";
+
+    private static final String SHA256_HASH = "sha256Hash";
+
+    private final ObjectMapper objectMapper;
+
+    private final LruCache<String, String> queries;
+
+    public PersistedQueryFilter(ObjectMapper objectMapper, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.queries = new LruCache<>(applicationProperties.getGraphql().getPersistedQueries().getMaxSize());
+        this.queries.bindTo(meterRegistry, "graphql.persistedQueries");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            String extensions = request.getParameter(EXTENSIONS);
+            if (extensions == null || !extensions.contains(PERSISTED_QUERY)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            ObjectNode operation = objectMapper.createObjectNode();
+            try {
+                operation.set(EXTENSIONS, objectMapper.readTree(extensions));
+            } catch (JsonProcessingException e) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (request.getParameter(QUERY) != null) {
+                operation.put(QUERY, request.getParameter(QUERY));
+            }
+            String error = resolve(request, operation);
+            if (error != null) {
+                sendError(response, error);
+                return;
+            }
+            JsonNode query = operation.get(QUERY);
+            filterChain.doFilter(query == null ? request : new QueryParameterRequest(request, query.asText()), response);
+            return;
+        }
+
+        GraphQLRequestBody body = GraphQLRequestBody.of(request, objectMapper);
+        if (body == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        JsonNode operations = body.getOperations();
+        String error = null;
+        boolean resolved = false;
+        for (JsonNode operation : operations instanceof ArrayNode ? operations : Collections.singletonList(operations)) {
+            if (operation instanceof ObjectNode && operation.path(EXTENSIONS).has(PERSISTED_QUERY)) {
+                resolved = true;
+                if (error == null) {
+                    error = resolve(request, (ObjectNode) operation);
+                }
+            }
+        }
+        if (error != null) {
+            sendError(response, error);
+            return;
+        }
+        if (resolved) {
+            body.setModified();
+        }
+        filterChain.doFilter(body.wrap(request), response);
+    }
+
+    /**
+     * Set the query of an operation from its hash, or remember the query of its hash. The hash is also kept for the
+     * {@link CachingPreparsedDocumentProvider}.
+     *
+     * @param request the request of the operation.
+     * @param operation the operation, modified in place.
+     * @return an error message, or {@code null} if the operation can be executed.
+     */
+    private String resolve(HttpServletRequest request, ObjectNode operation) {
+        JsonNode hashNode = operation.path(EXTENSIONS).path(PERSISTED_QUERY).path(SHA256_HASH);
+        operation.remove(EXTENSIONS);
+        if (!hashNode.isTextual()) {
+            return null;
+        }
+        String hash = hashNode.asText();
+        String query = operation.path(QUERY).asText(null);
+        if (StringUtils.isEmpty(query)) {
+            query = queries.get(hash);
+            if (query == null) {
+                return NOT_FOUND;
+            }
+            operation.put(QUERY, query);
+        } else if (hash.equalsIgnoreCase(Hashes.sha256Hex(query.getBytes(StandardCharsets.UTF_8)))) {
+            queries.put(hash, query);
+        } else {
+            return "provided sha does not match query";
+        }
+        Hashes.putQueryHash(request, query, hash);
+        return null;
+    }
+
+    private void sendError(HttpServletResponse response, String message) throws IOException {
+        Map<String, Object> error = new HashMap<>();
+        error.put("message", message);
+        if (NOT_FOUND.equals(message)) {
+            error.put(EXTENSIONS, Collections.singletonMap("code", "PERSISTED_QUERY_NOT_FOUND"));
+            response.setStatus(HttpStatus.OK.value());
+        } else {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Collections.singletonMap("errors", Collections.singletonList(error)));
+    }
+
+    /**
+     * A GET request whose {@code query} parameter is replaced and {@code extensions} parameter removed.
+     */
+    private static final class QueryParameterRequest extends HttpServletRequestWrapper {
+
+        private final Map<String, String[]> parameters;
+
+        private QueryParameterRequest(HttpServletRequest request, String query) {
+            super(request);
+            Map<String, String[]> parameters = new HashMap<>(request.getParameterMap());
+            parameters.put(QUERY, new String[]{query});
+            parameters.remove(EXTENSIONS);
+            this.parameters = Collections.unmodifiableMap(parameters);
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values == null || values.length == 0 ? null : values[0];
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return parameters;
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return parameters.get(name);
+        }
+    }
+}
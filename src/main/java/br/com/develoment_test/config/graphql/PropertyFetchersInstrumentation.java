@@ -0,0 +1,102 @@
+package br.com.develoment_test.config.graphql;
+
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Resolves the properties of the GraphQL object types with getters generated by {@link LambdaMetafactory}, instead
+ * of the reflective fetchers of graphql-java-tools.
+ * <p>
+ * A getter is generated the first time a field is fetched from a class of source objects, and the field is then a
+ * direct call to the getter which the JIT can inline. The getters are kept by field and by class, so the fields of
+ * an interface or a list mixing subclasses do not generate them again at every change of class. Fields with arguments, root fields, and the fields
+ * resolved by resolver methods according to the {@link ResolverWiring} keep their fetchers.
+ */
+public class PropertyFetchersInstrumentation extends SimpleInstrumentation {
+
+    private final Logger log = LoggerFactory.getLogger(PropertyFetchersInstrumentation.class);
+
+    private static final PropertyFetcher NONE = new PropertyFetcher(null);
+
+    private final ResolverWiring wiring;
+
+    private final Map<GraphQLFieldDefinition, Map<Class<?>, PropertyFetcher>> fetchers = new ConcurrentHashMap<>();
+
+    public PropertyFetchersInstrumentation(ResolverWiring wiring) {
+        this.wiring = wiring;
+    }
+
+    @Override
+    public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters) {
+        DataFetchingEnvironment environment = parameters.getEnvironment();
+        Object source = environment.getSource();
+        if (source == null) {
+            return dataFetcher;
+        }
+        GraphQLFieldDefinition field = parameters.getField();
+        PropertyFetcher fetcher = fetchers.computeIfAbsent(field, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(source.getClass(), sourceClass -> generate(field, environment.getParentType(), sourceClass));
+        return fetcher == NONE ? dataFetcher : fetcher;
+    }
+
+    private PropertyFetcher generate(GraphQLFieldDefinition field, GraphQLType parentType, Class<?> sourceClass) {
+        if (!field.getArguments().isEmpty() || field.getName().startsWith("__") ||
+            wiring.isResolved(parentType.getName(), field.getName(), field.getArguments().size())) {
+            return NONE;
+        }
+        Method getter = ResolverWiring.findMethod(sourceClass, field.getName(), 0);
+        if (getter == null || getter.getReturnType() == void.class) {
+            return NONE;
+        }
+        try {
+            return new PropertyFetcher(lambda(getter));
+        } catch (Throwable t) {
+            log.debug("Could not generate the getter of {}.{}: {}", parentType.getName(), field.getName(), t.getMessage());
+            return NONE;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> lambda(Method getter) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle = lookup.unreflect(getter);
+        Class<?> returnType = ClassUtils.resolvePrimitiveIfNecessary(getter.getReturnType());
+        CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+            MethodType.methodType(Function.class),
+            MethodType.methodType(Object.class, Object.class),
+            handle,
+            MethodType.methodType(returnType, getter.getDeclaringClass()));
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    private static final class PropertyFetcher implements DataFetcher<Object> {
+
+        private final Function<Object, Object> getter;
+
+        private PropertyFetcher(Function<Object, Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(DataFetchingEnvironment environment) {
+            return getter.apply(environment.getSource());
+        }
+    }
+}
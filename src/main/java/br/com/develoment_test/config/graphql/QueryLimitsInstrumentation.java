@@ -0,0 +1,221 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.language.Argument;
+import graphql.language.Definition;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.TypeName;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLModifiedType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rejects the queries deeper or costlier than the configured {@link ApplicationProperties.Graphql.Limits}, once
+ * they are validated and before any field is resolved.
+ * <p>
+ * The check runs when the operation starts rather than during validation, as validation is skipped for the
+ * documents found in the {@link CachingPreparsedDocumentProvider}, and the cost depends on the variables.
+ * <p>
+ * The cost of a field is its configured cost plus the cost of its sub-selection, multiplied by the size of the list
+ * for list fields. The size is read from the {@code size} or {@code first} argument of the field, or from the
+ * configured list sizes, and counted as 0 when negative. Introspection fields are not limited.
+ */
+public class QueryLimitsInstrumentation extends SimpleInstrumentation {
+
+    private final Logger log = LoggerFactory.getLogger(QueryLimitsInstrumentation.class);
+
+    private static final String[] SIZE_ARGUMENTS = {"size", "first"};
+
+    private final ApplicationProperties.Graphql.Limits limits;
+
+    private final DistributionSummary costSummary;
+
+    private final DistributionSummary depthSummary;
+
+    private final Counter depthRejections;
+
+    private final Counter costRejections;
+
+    public QueryLimitsInstrumentation(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.limits = applicationProperties.getGraphql().getLimits();
+        this.costSummary = DistributionSummary.builder("graphql.query.cost")
+            .description("Static cost of the validated GraphQL queries")
+            .register(meterRegistry);
+        this.depthSummary = DistributionSummary.builder("graphql.query.depth")
+            .description("Depth of the validated GraphQL queries")
+            .register(meterRegistry);
+        this.depthRejections = meterRegistry.counter("graphql.query.rejected", "reason", "depth");
+        this.costRejections = meterRegistry.counter("graphql.query.rejected", "reason", "cost");
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters) {
+        check(parameters.getExecutionContext());
+        return super.beginExecuteOperation(parameters);
+    }
+
+    private void check(ExecutionContext executionContext) {
+        OperationDefinition operation = executionContext.getOperationDefinition();
+        GraphQLSchema schema = executionContext.getGraphQLSchema();
+        Traversal traversal = new Traversal(schema, executionContext.getDocument(), executionContext.getVariables());
+        long cost = traversal.cost(operation.getSelectionSet(), rootType(schema, operation.getOperation()), 1);
+        costSummary.record(cost);
+        depthSummary.record(traversal.maxDepth);
+        if (traversal.maxDepth > limits.getMaxDepth()) {
+            depthRejections.increment();
+            log.debug("Rejected GraphQL query of depth {}", traversal.maxDepth);
+            throw new AbortExecutionException("Query depth " + traversal.maxDepth + " exceeds the maximum of " + limits.getMaxDepth());
+        }
+        if (cost > limits.getMaxCost()) {
+            costRejections.increment();
+            log.debug("Rejected GraphQL query of cost {}", cost);
+            throw new AbortExecutionException("Query cost " + cost + " exceeds the maximum of " + limits.getMaxCost());
+        }
+    }
+
+    private static GraphQLFieldsContainer rootType(GraphQLSchema schema, OperationDefinition.Operation operation) {
+        switch (operation) {
+            case MUTATION:
+                return schema.getMutationType();
+            case SUBSCRIPTION:
+                return schema.getSubscriptionType();
+            default:
+                return schema.getQueryType();
+        }
+    }
+
+    /**
+     * Computes the cost and the depth of a single operation.
+     */
+    private final class Traversal {
+
+        private final Map<String, FragmentDefinition> fragments = new HashMap<>();
+
+        private final Map<String, Object> variables;
+
+        private final GraphQLSchema schema;
+
+        private int maxDepth;
+
+        private Traversal(GraphQLSchema schema, Document document, Map<String, Object> variables) {
+            this.schema = schema;
+            for (Definition definition : document.getDefinitions()) {
+                if (definition instanceof FragmentDefinition) {
+                    fragments.put(((FragmentDefinition) definition).getName(), (FragmentDefinition) definition);
+                }
+            }
+            this.variables = variables == null ? new HashMap<>() : variables;
+        }
+
+        private long cost(SelectionSet selectionSet, GraphQLFieldsContainer parentType, int depth) {
+            if (selectionSet == null || parentType == null) {
+                return 0;
+            }
+            long cost = 0;
+            for (Selection selection : selectionSet.getSelections()) {
+                if (selection instanceof Field) {
+                    cost += fieldCost((Field) selection, parentType, depth);
+                } else if (selection instanceof InlineFragment) {
+                    InlineFragment fragment = (InlineFragment) selection;
+                    cost += cost(fragment.getSelectionSet(), typeCondition(fragment.getTypeCondition(), parentType), depth);
+                } else if (selection instanceof FragmentSpread) {
+                    FragmentDefinition fragment = fragments.get(((FragmentSpread) selection).getName());
+                    if (fragment != null) {
+                        cost += cost(fragment.getSelectionSet(), typeCondition(fragment.getTypeCondition(), parentType), depth);
+                    }
+                }
+            }
+            return Math.min(cost, Integer.MAX_VALUE);
+        }
+
+        private GraphQLFieldsContainer typeCondition(TypeName typeCondition, GraphQLFieldsContainer parentType) {
+            if (typeCondition == null) {
+                return parentType;
+            }
+            GraphQLType type = schema.getType(typeCondition.getName());
+            return type instanceof GraphQLFieldsContainer ? (GraphQLFieldsContainer) type : parentType;
+        }
+
+        private long fieldCost(Field field, GraphQLFieldsContainer parentType, int depth) {
+            if (field.getName().startsWith("__")) {
+                return 0;
+            }
+            maxDepth = Math.max(maxDepth, depth);
+            GraphQLFieldDefinition definition = parentType.getFieldDefinition(field.getName());
+            if (definition == null) {
+                return 0;
+            }
+            String key = parentType.getName() + "." + field.getName();
+            boolean list = false;
+            GraphQLType type = definition.getType();
+            while (type instanceof GraphQLModifiedType) {
+                list |= type instanceof GraphQLList;
+                type = ((GraphQLModifiedType) type).getWrappedType();
+            }
+            boolean composite = type instanceof GraphQLFieldsContainer;
+            long cost = limits.getFieldCosts().getOrDefault(key, composite ? 1 : 0);
+            if (composite) {
+                long childCost = cost(field.getSelectionSet(), (GraphQLFieldsContainer) type, depth + 1);
+                cost += (list ? listSize(field, key) : 1) * childCost;
+            }
+            return Math.min(cost, Integer.MAX_VALUE);
+        }
+
+        private long listSize(Field field, String key) {
+            for (Argument argument : field.getArguments()) {
+                for (String sizeArgument : SIZE_ARGUMENTS) {
+                    if (sizeArgument.equals(argument.getName())) {
+                        Long size = intValue(argument.getValue());
+                        if (size != null) {
+                            // A negative size must not lower the cost of the other fields
+                            return Math.max(0, Math.min(size, Integer.MAX_VALUE));
+                        }
+                    }
+                }
+            }
+            return limits.getListSizes().getOrDefault(key, limits.getDefaultListSize());
+        }
+
+        private Long intValue(Value value) {
+            if (value instanceof IntValue) {
+                BigInteger intValue = ((IntValue) value).getValue();
+                return intValue.bitLength() < Long.SIZE ? intValue.longValue() : intValue.signum() * Long.MAX_VALUE;
+            }
+            if (value instanceof VariableReference) {
+                Object variable = variables.get(((VariableReference) value).getName());
+                if (variable instanceof Number) {
+                    return ((Number) variable).longValue();
+                }
+            }
+            return null;
+        }
+    }
+}
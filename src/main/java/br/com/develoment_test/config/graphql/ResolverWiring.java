@@ -0,0 +1,141 @@
+package br.com.develoment_test.config.graphql;
+
+import com.coxautodev.graphql.tools.GraphQLMutationResolver;
+import com.coxautodev.graphql.tools.GraphQLQueryResolver;
+import com.coxautodev.graphql.tools.GraphQLResolver;
+import com.coxautodev.graphql.tools.GraphQLSubscriptionResolver;
+import graphql.schema.DataFetchingEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resolver classes of the GraphQL types, telling the fields resolved by resolver methods from the properties
+ * of the source objects.
+ * <p>
+ * The methods are matched as graphql-java-tools matches them when it builds the schema from the same resolvers, so
+ * the wiring needs no build step. It only tells the resolved fields from the properties: the schema is still built
+ * by graphql-java-tools.
+ */
+public class ResolverWiring {
+
+    private final Logger log = LoggerFactory.getLogger(ResolverWiring.class);
+
+    private final Map<String, List<Class<?>>> resolversByType = new HashMap<>();
+
+    /**
+     * @param resolvers the resolvers of the schema, from which graphql-java-tools builds it.
+     */
+    public ResolverWiring(Collection<? extends GraphQLResolver<?>> resolvers) {
+        List<Class<?>> resolverClasses = new ArrayList<>(resolvers.size());
+        for (GraphQLResolver<?> resolver : resolvers) {
+            // Without the subclass of a proxy, whose methods are matched by graphql-java-tools on the user class
+            resolverClasses.add(ClassUtils.getUserClass(resolver));
+        }
+        addResolverClasses(resolverClasses);
+    }
+
+    private ResolverWiring() {
+    }
+
+    /**
+     * @param resolverClasses the classes of the resolvers of the schema.
+     * @return the wiring of these resolvers.
+     */
+    static ResolverWiring ofClasses(Collection<Class<?>> resolverClasses) {
+        ResolverWiring wiring = new ResolverWiring();
+        wiring.addResolverClasses(resolverClasses);
+        return wiring;
+    }
+
+    private void addResolverClasses(Collection<Class<?>> resolverClasses) {
+        for (Class<?> resolver : resolverClasses) {
+            if (GraphQLQueryResolver.class.isAssignableFrom(resolver)) {
+                resolversByType.computeIfAbsent("Query", key -> new ArrayList<>()).add(resolver);
+            }
+            if (GraphQLMutationResolver.class.isAssignableFrom(resolver)) {
+                resolversByType.computeIfAbsent("Mutation", key -> new ArrayList<>()).add(resolver);
+            }
+            if (GraphQLSubscriptionResolver.class.isAssignableFrom(resolver)) {
+                resolversByType.computeIfAbsent("Subscription", key -> new ArrayList<>()).add(resolver);
+            }
+            Class<?> sourceType = ResolvableType.forClass(resolver).as(GraphQLResolver.class).getGeneric(0).resolve();
+            if (sourceType != null && sourceType != Void.class) {
+                resolversByType.computeIfAbsent(sourceType.getSimpleName(), key -> new ArrayList<>()).add(resolver);
+            }
+        }
+        log.debug("Found the resolvers of the GraphQL types {}", resolversByType.keySet());
+    }
+
+    /**
+     * @param typeName the name of the object type.
+     * @return whether the type is a root type, whose fields are all resolved by resolver methods.
+     */
+    static boolean isRootType(String typeName) {
+        return "Query".equals(typeName) || "Mutation".equals(typeName) || "Subscription".equals(typeName);
+    }
+
+    /**
+     * @param typeName the name of the object type.
+     * @param fieldName the name of the field.
+     * @param argumentCount the number of arguments of the field.
+     * @return the resolver methods matching the field, a single one unless the resolvers are ambiguous.
+     */
+    List<Method> findResolverMethods(String typeName, String fieldName, int argumentCount) {
+        List<Method> methods = new ArrayList<>();
+        // The resolvers of object types take the source object first
+        int parameterCount = argumentCount + (isRootType(typeName) ? 0 : 1);
+        for (Class<?> resolver : resolversByType.getOrDefault(typeName, Collections.emptyList())) {
+            Method method = findMethod(resolver, fieldName, parameterCount);
+            if (method != null) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * @param typeName the name of the object type.
+     * @param fieldName the name of the field.
+     * @param argumentCount the number of arguments of the field.
+     * @return whether the field is resolved by a resolver method rather than by a property of its source object.
+     */
+    public boolean isResolved(String typeName, String fieldName, int argumentCount) {
+        return isRootType(typeName) || !findResolverMethods(typeName, fieldName, argumentCount).isEmpty();
+    }
+
+    /**
+     * Finds the method resolving a field as graphql-java-tools does: named after the field, or its {@code is} or
+     * {@code get} accessor, with the given number of parameters and optionally the {@link DataFetchingEnvironment}
+     * last.
+     *
+     * @param type the class of the resolver or of the source object.
+     * @param fieldName the name of the field.
+     * @param parameterCount the number of parameters, without the optional environment.
+     * @return the public method resolving the field, or {@code null}.
+     */
+    public static Method findMethod(Class<?> type, String fieldName, int parameterCount) {
+        String[] names = {fieldName, "is" + StringUtils.capitalize(fieldName), "get" + StringUtils.capitalize(fieldName)};
+        for (String name : names) {
+            for (Method method : type.getMethods()) {
+                if (method.getName().equals(name) && !Modifier.isStatic(method.getModifiers()) && !method.isBridge() &&
+                    (method.getParameterCount() == parameterCount || (method.getParameterCount() == parameterCount + 1 &&
+                        method.getParameterTypes()[parameterCount] == DataFetchingEnvironment.class))) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+}
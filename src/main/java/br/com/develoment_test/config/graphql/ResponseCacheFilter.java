@@ -0,0 +1,193 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import br.com.develoment_test.security.SecurityUtils;
+import br.com.develoment_test.service.dto.FunctionalityChangeDTO;
+import br.com.develoment_test.service.dto.UserBulkChangeDTO;
+import br.com.develoment_test.service.dto.UserChangeDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the results of the GraphQL queries whose {@link CacheControlPolicy} allows it, and answers conditional
+ * requests with {@code 304 Not Modified}.
+ * <p>
+ * Results are cached by hash of the request, and by login for the private ones or by authorities for the public
+ * ones, as the resolvers check the authorities of the caller. They are evicted after their max age, or as soon as
+ * a change of one of their types is committed.
+ * <p>
+ * Requests accepting incremental delivery by the {@link DeferredResponseFilter} are not cached, so that their
+ * parts are not buffered.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    static final String POLICY_ATTRIBUTE = ResponseCacheFilter.class.getName() + ".policy";
+
+    private final ObjectMapper objectMapper;
+
+    private final LruCache<String, CachedResponse> responses;
+
+    public ResponseCacheFilter(ObjectMapper objectMapper, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.responses = new LruCache<>(applicationProperties.getGraphql().getResponseCache().getMaxSize());
+        this.responses.bindTo(meterRegistry, "graphql.responses");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        boolean get = HttpMethod.GET.matches(request.getMethod());
+        if ((!get && !HttpMethod.POST.matches(request.getMethod())) || DeferredResponseFilter.acceptsIncrementalDelivery(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest cachedRequest = request;
+        String requestHash;
+        if (get) {
+            String queryString = request.getQueryString();
+            requestHash = Hashes.sha256Hex((queryString == null ? "" : queryString).getBytes(StandardCharsets.UTF_8));
+        } else {
+            GraphQLRequestBody body = GraphQLRequestBody.of(request, objectMapper);
+            if (body == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            cachedRequest = body.wrap(request);
+            if (body.isBatch()) {
+                filterChain.doFilter(cachedRequest, response);
+                return;
+            }
+            requestHash = body.getHash();
+        }
+
+        // The same operation can be answered in several formats
+        requestHash += "|" + BinaryFormatsFilter.responseFormat(request);
+        String privateKey = requestHash + "|private|" + SecurityUtils.getCurrentUserLogin().orElse("");
+        String publicKey = requestHash + "|public|" + authorities();
+        CachedResponse cached = responses.get(privateKey);
+        if (cached == null || cached.isExpired()) {
+            cached = responses.get(publicKey);
+        }
+        if (cached != null && !cached.isExpired()) {
+            writeHeaders(request, response, cached);
+            if (isNotModified(request, cached)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            } else {
+                response.setContentType(cached.contentType);
+                response.setContentLength(cached.body.length);
+                response.getOutputStream().write(cached.body);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(cachedRequest, responseWrapper);
+        CacheControlPolicy policy = (CacheControlPolicy) request.getAttribute(POLICY_ATTRIBUTE);
+        if (policy != null && policy.isCacheable() && responseWrapper.getStatus() == HttpServletResponse.SC_OK) {
+            CachedResponse entry = new CachedResponse(responseWrapper.getContentAsByteArray(), responseWrapper.getContentType(), policy);
+            responses.put(policy.getScope() == CacheControlHints.Scope.PRIVATE ? privateKey : publicKey, entry);
+            writeHeaders(request, response, entry);
+            if (isNotModified(request, entry)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private static String authorities() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return "";
+        }
+        return authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .sorted()
+            .collect(Collectors.joining(","));
+    }
+
+    private static void writeHeaders(HttpServletRequest request, HttpServletResponse response, CachedResponse cached) {
+        // Shared caches must not serve a response computed for the authorities of an authenticated caller
+        boolean shared = cached.policy.getScope() == CacheControlHints.Scope.PUBLIC && request.getHeader(HttpHeaders.AUTHORIZATION) == null;
+        response.setHeader(HttpHeaders.CACHE_CONTROL, (shared ? "public" : "private") + ", max-age=" + cached.remainingSeconds());
+        response.setHeader(HttpHeaders.ETAG, cached.etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION + ", " + HttpHeaders.ACCEPT);
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, CachedResponse cached) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        return ifNoneMatch != null && (ifNoneMatch.contains(cached.etag) || "*".equals(ifNoneMatch.trim()));
+    }
+
+    /**
+     * Evict the cached results which contain a type.
+     *
+     * @param typeName the name of the GraphQL type.
+     */
+    public void evict(String typeName) {
+        responses.removeIf(cached -> cached.policy.getTypeNames().contains(typeName));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFunctionalityChange(FunctionalityChangeDTO change) {
+        evict("Functionality");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeDTO change) {
+        evict("User");
+        evict("UserDTO");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserBulkChange(UserBulkChangeDTO bulkChange) {
+        evict("User");
+        evict("UserDTO");
+    }
+
+    private static final class CachedResponse {
+
+        private final byte[] body;
+
+        private final String contentType;
+
+        private final CacheControlPolicy policy;
+
+        private final String etag;
+
+        private final long expiresAtNanos;
+
+        private CachedResponse(byte[] body, String contentType, CacheControlPolicy policy) {
+            this.body = body;
+            this.contentType = contentType;
+            this.policy = policy;
+            this.etag = "\"" + Hashes.sha256Hex(body).substring(0, 32) + "\"";
+            this.expiresAtNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(policy.getMaxAge());
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+
+        private long remainingSeconds() {
+            return Math.max(0, TimeUnit.NANOSECONDS.toSeconds(expiresAtNanos - System.nanoTime()));
+        }
+    }
+}
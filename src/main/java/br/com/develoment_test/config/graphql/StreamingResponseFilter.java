@@ -0,0 +1,154 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.servlet.GraphQLInvocationInputFactory;
+import graphql.servlet.GraphQLObjectMapper;
+import graphql.servlet.GraphQLQueryInvoker;
+import graphql.servlet.internal.GraphQLRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the results of the single GraphQL operations directly to the response stream.
+ * <p>
+ * The servlet serializes each result to a {@code String} before writing it, so the response is held in memory
+ * several times. Here the result is written by a {@link JsonGenerator} of the servlet's own object mapper, whose
+ * output buffers are recycled by Jackson, so the output is the same and only a buffer of it is held at a time. When
+ * enabled, the result is gzipped on the fly for the clients accepting it, unless the response is buffered by the
+ * {@link ResponseCacheFilter}, as the cached body is sent to every client.
+ * <p>
+ * Only the JSON requests and results are handled here, the Smile and CBOR ones are left to the
+ * {@link BinaryFormatsFilter}. Batches, queries using {@code @defer} and the other requests are left to the servlet.
+ */
+public class StreamingResponseFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final Supplier<GraphQLObjectMapper> graphQLObjectMapper;
+
+    private final Supplier<GraphQLInvocationInputFactory> invocationInputFactory;
+
+    private final Supplier<GraphQLQueryInvoker> queryInvoker;
+
+    private final boolean gzip;
+
+    private final int bufferSize;
+
+    private final DistributionSummary responseSizeSummary;
+
+    private final DistributionSummary allocationSummary;
+
+    public StreamingResponseFilter(Supplier<GraphQLObjectMapper> graphQLObjectMapper,
+                                   Supplier<GraphQLInvocationInputFactory> invocationInputFactory,
+                                   Supplier<GraphQLQueryInvoker> queryInvoker,
+                                   ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.graphQLObjectMapper = graphQLObjectMapper;
+        this.invocationInputFactory = invocationInputFactory;
+        this.queryInvoker = queryInvoker;
+        ApplicationProperties.Graphql.Streaming properties = applicationProperties.getGraphql().getStreaming();
+        this.gzip = properties.isGzip();
+        this.bufferSize = properties.getBufferSize();
+        this.responseSizeSummary = DistributionSummary.builder("graphql.response.size")
+            .description("Size of the streamed GraphQL responses, as sent")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.allocationSummary = isAllocationMeasurable() ? DistributionSummary.builder("graphql.response.allocation")
+            .description("Memory allocated by the request thread to serialize a GraphQL response")
+            .baseUnit("bytes")
+            .register(meterRegistry) : null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        GraphQLRequestBody body = GraphQLRequestBody.of(request, graphQLObjectMapper.get().getJacksonMapper());
+        if (body == null || body.getFormat() != GraphQLFormat.JSON || DeferredResponseFilter.acceptsIncrementalDelivery(request)) {
+            filterChain.doFilter(body == null ? request : body.wrap(request), response);
+            return;
+        }
+        GraphQLRequest graphQLRequest = body.readRequest(graphQLObjectMapper.get());
+        if (graphQLRequest == null || graphQLRequest.getQuery() == null || graphQLRequest.getQuery().contains("@defer")) {
+            filterChain.doFilter(body.wrap(request), response);
+            return;
+        }
+
+        ExecutionResult result = queryInvoker.get().query(invocationInputFactory.get().create(graphQLRequest, request));
+        write(request, response, result);
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, ExecutionResult result) throws IOException {
+        long allocatedBefore = allocatedBytes();
+        GraphQLObjectMapper mapper = graphQLObjectMapper.get();
+        Map<String, Object> specification = mapper.createResultFromExecutionResult(result);
+        boolean compress = gzip && acceptsGzip(request) &&
+            WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null;
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/json;charset=UTF-8");
+        if (gzip) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (compress) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        CountingOutputStream counting = new CountingOutputStream(response.getOutputStream());
+        OutputStream out = compress ? new GZIPOutputStream(counting, bufferSize) : counting;
+        ObjectMapper jacksonMapper = mapper.getJacksonMapper();
+        try (JsonGenerator generator = jacksonMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            // The servlet stream is closed by the container
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            jacksonMapper.writeValue(generator, specification);
+        }
+        if (compress) {
+            ((GZIPOutputStream) out).finish();
+        }
+        out.flush();
+
+        responseSizeSummary.record(counting.getByteCount());
+        if (allocationSummary != null) {
+            allocationSummary.record(allocatedBytes() - allocatedBefore);
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains(GZIP);
+    }
+
+    private static boolean isAllocationMeasurable() {
+        return THREADS instanceof com.sun.management.ThreadMXBean &&
+            ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported() &&
+            ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemoryEnabled();
+    }
+
+    private long allocatedBytes() {
+        if (allocationSummary == null) {
+            return 0;
+        }
+        return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
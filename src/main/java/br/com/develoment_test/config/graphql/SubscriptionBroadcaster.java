@@ -0,0 +1,156 @@
+package br.com.develoment_test.config.graphql;
+
+import io.micrometer.core.instrument.Counter;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the events of this node to every GraphQL subscription.
+ * <p>
+ * Each subscriber has its own bounded buffer, drained as it requests events. When a slow subscriber lets its buffer
+ * fill up, its oldest events are dropped, so that it cannot hold memory nor slow down the other subscribers.
+ * <p>
+ * Broadcasting only fills the buffers: each buffer is drained by a task of the executor, at most one at a time per
+ * subscriber, so a subscriber blocked while writing an event only holds one thread of the executor.
+ */
+public class SubscriptionBroadcaster<T> implements Publisher<T> {
+
+    private final Logger log = LoggerFactory.getLogger(SubscriptionBroadcaster.class);
+
+    private final Set<BufferedSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final int bufferSize;
+
+    private final Counter droppedCounter;
+
+    private final Executor executor;
+
+    public SubscriptionBroadcaster(int bufferSize, Counter droppedCounter, Executor executor) {
+        this.bufferSize = bufferSize;
+        this.droppedCounter = droppedCounter;
+        this.executor = executor;
+    }
+
+    /**
+     * Send an event to all the current subscribers.
+     *
+     * @param event the event.
+     */
+    public void broadcast(T event) {
+        for (BufferedSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        BufferedSubscription subscription = new BufferedSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class BufferedSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+
+        private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger buffered = new AtomicInteger();
+
+        private final AtomicLong requested = new AtomicLong();
+
+        private final AtomicInteger drainers = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        private BufferedSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void offer(T event) {
+            buffer.offer(event);
+            if (buffered.incrementAndGet() > bufferSize && buffer.poll() != null) {
+                buffered.decrementAndGet();
+                droppedCounter.increment();
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Subscribers must request a positive number of events"));
+                return;
+            }
+            requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            buffer.clear();
+        }
+
+        /**
+         * Start draining the buffer on the executor, unless it is already being drained.
+         */
+        private void scheduleDrain() {
+            if (drainers.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.debug("GraphQL subscription executor is shut down, cancelling subscription");
+                cancel();
+            }
+        }
+
+        /**
+         * Deliver the buffered events as long as they are requested.
+         */
+        private void drain() {
+            int missed = 1;
+            do {
+                while (!cancelled && requested.get() > 0) {
+                    T event = buffer.poll();
+                    if (event == null) {
+                        break;
+                    }
+                    buffered.decrementAndGet();
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    try {
+                        subscriber.onNext(event);
+                    } catch (RuntimeException e) {
+                        log.warn("GraphQL subscriber failed, cancelling its subscription", e);
+                        cancel();
+                    }
+                }
+                missed = drainers.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
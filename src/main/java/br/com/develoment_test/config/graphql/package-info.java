@@ -0,0 +1,4 @@
+/**
+ * GraphQL specific code.
+ */
+package br.com.develoment_test.config.graphql;
@@ -0,0 +1,112 @@
+package br.com.develoment_test.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Hourly count of the {@link PersistentAuditEvent}s of one principal and event type.
+ */
+@Entity
+@Table(name = "jhi_persistent_audit_evt_rollup")
+public class PersistentAuditEventRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Column(nullable = false)
+    private String principal;
+
+    @NotNull
+    @Column(name = "event_type", nullable = false)
+    private String auditEventType;
+
+    @NotNull
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+
+    public PersistentAuditEventRollup() {
+    }
+
+    public PersistentAuditEventRollup(String principal, String auditEventType, Instant bucketStart, long eventCount) {
+        this.principal = principal;
+        this.auditEventType = auditEventType;
+        this.bucketStart = bucketStart;
+        this.eventCount = eventCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public void setPrincipal(String principal) {
+        this.principal = principal;
+    }
+
+    public String getAuditEventType() {
+        return auditEventType;
+    }
+
+    public void setAuditEventType(String auditEventType) {
+        this.auditEventType = auditEventType;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(long eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PersistentAuditEventRollup)) {
+            return false;
+        }
+        return id != null && id.equals(((PersistentAuditEventRollup) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentAuditEventRollup{" +
+            "principal='" + principal + '\'' +
+            ", auditEventType='" + auditEventType + '\'' +
+            ", bucketStart=" + bucketStart +
+            ", eventCount=" + eventCount +
+            '}';
+    }
+}
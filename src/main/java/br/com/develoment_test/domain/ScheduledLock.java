@@ -0,0 +1,131 @@
+package br.com.develoment_test.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A lock guarding a scheduled job, so that only one node of the cluster runs it at a time.
+ */
+@Entity
+@Table(name = "jhi_scheduled_lock")
+public class ScheduledLock implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 64)
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @NotNull
+    @Column(name = "lock_until", nullable = false)
+    private Instant lockUntil;
+
+    @NotNull
+    @Column(name = "locked_at", nullable = false)
+    private Instant lockedAt;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "locked_by", nullable = false)
+    private String lockedBy;
+
+    @Column(name = "last_finished_at")
+    private Instant lastFinishedAt;
+
+    @Column(name = "last_duration_millis")
+    private Long lastDurationMillis;
+
+    public ScheduledLock() {
+    }
+
+    public ScheduledLock(String name, Instant lockUntil, Instant lockedAt, String lockedBy) {
+        this.name = name;
+        this.lockUntil = lockUntil;
+        this.lockedAt = lockedAt;
+        this.lockedBy = lockedBy;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getLockUntil() {
+        return lockUntil;
+    }
+
+    public void setLockUntil(Instant lockUntil) {
+        this.lockUntil = lockUntil;
+    }
+
+    public Instant getLockedAt() {
+        return lockedAt;
+    }
+
+    public void setLockedAt(Instant lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public void setLockedBy(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+
+    public Instant getLastFinishedAt() {
+        return lastFinishedAt;
+    }
+
+    public void setLastFinishedAt(Instant lastFinishedAt) {
+        this.lastFinishedAt = lastFinishedAt;
+    }
+
+    public Long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+
+    public void setLastDurationMillis(Long lastDurationMillis) {
+        this.lastDurationMillis = lastDurationMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ScheduledLock)) {
+            return false;
+        }
+        return name != null && name.equals(((ScheduledLock) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledLock{" +
+            "name='" + name + '\'' +
+            ", lockUntil=" + lockUntil +
+            ", lockedAt=" + lockedAt +
+            ", lockedBy='" + lockedBy + '\'' +
+            ", lastFinishedAt=" + lastFinishedAt +
+            ", lastDurationMillis=" + lastDurationMillis +
+            '}';
+    }
+}
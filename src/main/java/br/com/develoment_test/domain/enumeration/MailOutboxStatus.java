@@ -0,0 +1,8 @@
+package br.com.develoment_test.domain.enumeration;
+
+/**
+ * The MailOutboxStatus enumeration.
+ */
+public enum MailOutboxStatus {
+    PENDING, SENT, FAILED
+}
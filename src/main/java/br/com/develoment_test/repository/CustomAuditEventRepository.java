@@ -2,16 +2,20 @@ package br.com.develoment_test.repository;
 
 import br.com.develoment_test.config.Constants;
 import br.com.develoment_test.config.audit.AuditEventConverter;
+import br.com.develoment_test.config.audit.AuditEventPolicyFilter;
+import br.com.develoment_test.config.audit.AuditEventRollupAggregator;
 import br.com.develoment_test.domain.PersistentAuditEvent;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PreDestroy;
 import java.time.Instant;
 import java.util.*;
 
@@ -32,13 +36,20 @@ public class CustomAuditEventRepository implements AuditEventRepository {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AuditEventRollupAggregator auditEventRollupAggregator;
+
+    private final AuditEventPolicyFilter auditEventPolicyFilter;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     public CustomAuditEventRepository(PersistenceAuditEventRepository persistenceAuditEventRepository,
-            AuditEventConverter auditEventConverter) {
+            AuditEventConverter auditEventConverter, AuditEventRollupAggregator auditEventRollupAggregator,
+            AuditEventPolicyFilter auditEventPolicyFilter) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
+        this.auditEventRollupAggregator = auditEventRollupAggregator;
+        this.auditEventPolicyFilter = auditEventPolicyFilter;
     }
 
     @Override
@@ -54,16 +65,41 @@ public class CustomAuditEventRepository implements AuditEventRepository {
         if (!AUTHORIZATION_FAILURE.equals(event.getType()) &&
             !Constants.ANONYMOUS_USER.equals(event.getPrincipal())) {
 
-            PersistentAuditEvent persistentAuditEvent = new PersistentAuditEvent();
-            persistentAuditEvent.setPrincipal(event.getPrincipal());
-            persistentAuditEvent.setAuditEventType(event.getType());
-            persistentAuditEvent.setAuditEventDate(event.getTimestamp());
-            Map<String, String> eventData = auditEventConverter.convertDataToStrings(event.getData());
-            persistentAuditEvent.setData(truncate(eventData));
-            persistenceAuditEventRepository.save(persistentAuditEvent);
+            auditEventRollupAggregator.record(event.getPrincipal(), event.getType(), event.getTimestamp());
+            AuditEvent filteredEvent = auditEventPolicyFilter.filter(event);
+            if (filteredEvent != null) {
+                persist(filteredEvent);
+            }
         }
     }
 
+    /**
+     * Persist the collapsed events whose collapse window is over.
+     */
+    @Scheduled(fixedDelayString = "${application.audit.collapse-flush-interval-millis:10000}")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void flushCollapsedEvents() {
+        auditEventPolicyFilter.drainCollapsed(Instant.now()).forEach(this::persist);
+    }
+
+    /**
+     * Persist all the pending collapsed events on shutdown.
+     */
+    @PreDestroy
+    public void flushAllCollapsedEvents() {
+        auditEventPolicyFilter.drainCollapsed(null).forEach(this::persist);
+    }
+
+    private void persist(AuditEvent event) {
+        PersistentAuditEvent persistentAuditEvent = new PersistentAuditEvent();
+        persistentAuditEvent.setPrincipal(event.getPrincipal());
+        persistentAuditEvent.setAuditEventType(event.getType());
+        persistentAuditEvent.setAuditEventDate(event.getTimestamp());
+        Map<String, String> eventData = auditEventConverter.convertDataToStrings(event.getData());
+        persistentAuditEvent.setData(truncate(eventData));
+        persistenceAuditEventRepository.save(persistentAuditEvent);
+    }
+
     /**
      * Truncate event data that might exceed column length.
      */
@@ -0,0 +1,42 @@
+package br.com.develoment_test.repository;
+
+import br.com.develoment_test.domain.MailOutboxMessage;
+import br.com.develoment_test.domain.enumeration.MailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link MailOutboxMessage} entity.
+ */
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, Long> {
+
+    @Query("select m.id from MailOutboxMessage m where m.status = :status and m.nextAttemptDate <= :now " +
+        "and (m.claimedUntil is null or m.claimedUntil < :now) order by m.id")
+    List<Long> findClaimableIds(@Param("status") MailOutboxStatus status, @Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Claim the given messages for one dispatcher, skipping the ones another dispatcher claimed in the meantime.
+     *
+     * @return the number of messages actually claimed.
+     */
+    @Modifying
+    @Query("update MailOutboxMessage m set m.claimedBy = :owner, m.claimedUntil = :claimedUntil " +
+        "where m.id in :ids and m.status = :status and (m.claimedUntil is null or m.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("status") MailOutboxStatus status, @Param("owner") String owner,
+              @Param("claimedUntil") Instant claimedUntil, @Param("now") Instant now);
+
+    /**
+     * Get the messages of a claim, by the ids it was made for and the lease it gave them.
+     */
+    List<MailOutboxMessage> findAllByIdInAndClaimedByAndClaimedUntilOrderById(Collection<Long> ids, String claimedBy,
+                                                                              Instant claimedUntil);
+
+    long countByStatus(MailOutboxStatus status);
+}
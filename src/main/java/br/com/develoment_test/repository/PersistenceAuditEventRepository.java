@@ -4,9 +4,15 @@ import br.com.develoment_test.domain.PersistentAuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for the {@link PersistentAuditEvent} entity.
@@ -19,5 +25,41 @@ public interface PersistenceAuditEventRepository extends JpaRepository<Persisten
 
     Page<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
 
-    List<PersistentAuditEvent> findByAuditEventDateBefore(Instant before);
+    /**
+     * Stream the events between two dates with their data, through a forward-only cursor.
+     * <p>
+     * Results are ordered by id so that Hibernate can assemble each event from consecutive rows of the fetch join.
+     * The stream must be consumed in a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select e from PersistentAuditEvent e left join fetch e.data " +
+        "where e.auditEventDate >= :fromDate and e.auditEventDate < :toDate order by e.id")
+    Stream<PersistentAuditEvent> streamAllByAuditEventDateBetween(@Param("fromDate") Instant fromDate,
+                                                                  @Param("toDate") Instant toDate);
+
+    @Query("select min(e.id) from PersistentAuditEvent e where e.auditEventDate < :before")
+    Long findMinIdByAuditEventDateBefore(@Param("before") Instant before);
+
+    @Query("select max(e.id) from PersistentAuditEvent e where e.auditEventDate < :before")
+    Long findMaxIdByAuditEventDateBefore(@Param("before") Instant before);
+
+    /**
+     * Delete the data rows of the events in the given id range older than {@code before}.
+     * <p>
+     * Must run before {@link #deleteByIdBetweenAndAuditEventDateBefore} as the data table references the event table.
+     */
+    @Modifying
+    @Query(value = "delete from jhi_persistent_audit_evt_data where event_id in (" +
+        "select e.event_id from jhi_persistent_audit_event e " +
+        "where e.event_id between :fromId and :toId and e.event_date < :before)", nativeQuery = true)
+    int deleteDataByIdBetweenAndAuditEventDateBefore(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                                     @Param("before") Instant before);
+
+    @Modifying
+    @Query("delete from PersistentAuditEvent e where e.id between :fromId and :toId and e.auditEventDate < :before")
+    int deleteByIdBetweenAndAuditEventDateBefore(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                                 @Param("before") Instant before);
 }
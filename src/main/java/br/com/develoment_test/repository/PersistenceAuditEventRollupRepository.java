@@ -0,0 +1,30 @@
+package br.com.develoment_test.repository;
+
+import br.com.develoment_test.domain.PersistentAuditEventRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link PersistentAuditEventRollup} entity.
+ */
+public interface PersistenceAuditEventRollupRepository extends JpaRepository<PersistentAuditEventRollup, Long> {
+
+    @Modifying
+    @Query("update PersistentAuditEventRollup r set r.eventCount = r.eventCount + :delta " +
+        "where r.principal = :principal and r.auditEventType = :type and r.bucketStart = :bucketStart")
+    int incrementEventCount(@Param("principal") String principal, @Param("type") String type,
+                            @Param("bucketStart") Instant bucketStart, @Param("delta") long delta);
+
+    @Query("select r from PersistentAuditEventRollup r " +
+        "where r.bucketStart >= :fromDate and r.bucketStart < :toDate " +
+        "and (:principal is null or r.principal = :principal) " +
+        "and (:type is null or r.auditEventType = :type) " +
+        "order by r.bucketStart, r.principal, r.auditEventType")
+    List<PersistentAuditEventRollup> findStats(@Param("fromDate") Instant fromDate, @Param("toDate") Instant toDate,
+                                               @Param("principal") String principal, @Param("type") String type);
+}
@@ -0,0 +1,43 @@
+package br.com.develoment_test.repository;
+
+import br.com.develoment_test.domain.ScheduledLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+/**
+ * Spring Data JPA repository for the {@link ScheduledLock} entity.
+ */
+public interface ScheduledLockRepository extends JpaRepository<ScheduledLock, String> {
+
+    /**
+     * Take the lock if it has expired.
+     *
+     * @return {@code 1} if the lock was taken, {@code 0} if it is still held or does not exist.
+     */
+    @Modifying
+    @Query("update ScheduledLock l set l.lockUntil = :lockUntil, l.lockedAt = :now, l.lockedBy = :owner " +
+        "where l.name = :name and l.lockUntil <= :now")
+    int lock(@Param("name") String name, @Param("lockUntil") Instant lockUntil, @Param("now") Instant now,
+             @Param("owner") String owner);
+
+    /**
+     * Create the lock, failing with a duplicate key if another node created it first.
+     *
+     * @return {@code 1}.
+     */
+    @Modifying
+    @Query(value = "insert into jhi_scheduled_lock (name, lock_until, locked_at, locked_by) values (:name, :lockUntil, :now, :owner)",
+        nativeQuery = true)
+    int insert(@Param("name") String name, @Param("lockUntil") Instant lockUntil, @Param("now") Instant now,
+               @Param("owner") String owner);
+
+    @Modifying
+    @Query("update ScheduledLock l set l.lockUntil = :lockUntil, l.lastFinishedAt = :now, l.lastDurationMillis = :durationMillis " +
+        "where l.name = :name and l.lockedBy = :owner")
+    int unlock(@Param("name") String name, @Param("lockUntil") Instant lockUntil, @Param("now") Instant now,
+               @Param("durationMillis") long durationMillis, @Param("owner") String owner);
+}
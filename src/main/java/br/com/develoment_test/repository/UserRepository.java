@@ -5,9 +5,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,5 +42,54 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(attributePaths = "authorities")
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByLoginIn(Collection<String> logins);
+
+    List<User> findAllByLoginIn(Collection<String> logins);
+
     Page<User> findAllByLoginNot(Pageable pageable, String login);
+
+    /**
+     * Get the authorities of several users in one query.
+     *
+     * @param ids the ids of the users.
+     * @return pairs of user id and {@link br.com.develoment_test.domain.Authority}, users without authority are omitted.
+     */
+    @Query("select u.id, a from User u join u.authorities a where u.id in :ids")
+    List<Object[]> findAllAuthoritiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Activate or deactivate several users in one statement.
+     *
+     * @return the number of users changed.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update User u set u.activated = :activated, u.lastModifiedBy = :modifiedBy, u.lastModifiedDate = :modifiedDate " +
+        "where u.id in :ids and u.activated <> :activated")
+    int updateActivatedByIdIn(@Param("ids") Collection<Long> ids, @Param("activated") boolean activated,
+                              @Param("modifiedBy") String modifiedBy, @Param("modifiedDate") Instant modifiedDate);
+
+    /**
+     * Give an authority to several users in one statement, skipping the users who already have it.
+     *
+     * @param logins the logins of the users.
+     * @param authority the name of the authority.
+     * @return the number of users given the authority.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "insert into user_authority (user_id, authority_name) " +
+        "select u.id, :authority from user u where u.login in :logins and not exists " +
+        "(select 1 from user_authority ua where ua.user_id = u.id and ua.authority_name = :authority)", nativeQuery = true)
+    int insertAuthorityByLoginIn(@Param("logins") Collection<String> logins, @Param("authority") String authority);
+
+    /**
+     * Remove the authorities of several users in one statement, before deleting them.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from user_authority where user_id in :ids", nativeQuery = true)
+    int deleteAuthoritiesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from User u where u.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
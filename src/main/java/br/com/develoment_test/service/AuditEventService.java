@@ -1,8 +1,16 @@
 package br.com.develoment_test.service;
 
 import io.github.jhipster.config.JHipsterProperties;
+import br.com.develoment_test.aop.scheduling.SchedulerLock;
+import br.com.develoment_test.config.ApplicationProperties;
 import br.com.develoment_test.config.audit.AuditEventConverter;
+import br.com.develoment_test.domain.PersistentAuditEvent;
 import br.com.develoment_test.repository.PersistenceAuditEventRepository;
+import br.com.develoment_test.repository.PersistenceAuditEventRollupRepository;
+import br.com.develoment_test.service.dto.AuditEventStatsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
@@ -10,11 +18,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for managing audit events.
@@ -31,30 +48,99 @@ public class AuditEventService {
 
     private final PersistenceAuditEventRepository persistenceAuditEventRepository;
 
+    private final PersistenceAuditEventRollupRepository persistenceAuditEventRollupRepository;
+
     private final AuditEventConverter auditEventConverter;
 
+    private final EntityManager entityManager;
+
+    private final ApplicationProperties.Audit.Purge purgeProperties;
+
+    private final TransactionTemplate purgeTransactionTemplate;
+
+    private final Counter purgedEventsCounter;
+
+    private final Timer purgeTimer;
+
     public AuditEventService(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
-        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties) {
+        PersistenceAuditEventRollupRepository persistenceAuditEventRollupRepository,
+        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties,
+        ApplicationProperties applicationProperties, PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry, EntityManager entityManager) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.persistenceAuditEventRollupRepository = persistenceAuditEventRollupRepository;
         this.auditEventConverter = auditEventConverter;
         this.jHipsterProperties = jhipsterProperties;
+        this.entityManager = entityManager;
+        this.purgeProperties = applicationProperties.getAudit().getPurge();
+        this.purgeTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgedEventsCounter = Counter.builder("audit.events.purged")
+            .description("Number of audit events deleted by the retention job")
+            .register(meterRegistry);
+        this.purgeTimer = Timer.builder("audit.events.purge")
+            .description("Duration of the audit events retention job")
+            .register(meterRegistry);
     }
 
     /**
-    * Old audit events should be automatically deleted after 30 days.
-    *
-    * This is scheduled to get fired at 12:00 (am).
-    */
+     * Old audit events should be automatically deleted after 30 days.
+     * <p>
+     * This is scheduled to get fired at 12:00 (am).
+     * <p>
+     * Events are deleted with bulk statements over bounded id ranges, each range in its own short transaction,
+     * so that neither the expired events nor long-held locks pile up.
+     */
     @Scheduled(cron = "0 0 12 * * ?")
+    @SchedulerLock(name = "removeOldAuditEvents", lockAtMostFor = "PT1H", lockAtLeastFor = "PT5M")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void removeOldAuditEvents() {
-        persistenceAuditEventRepository
-            .findByAuditEventDateBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS))
-            .forEach(auditEvent -> {
-                log.debug("Deleting audit data {}", auditEvent);
-                persistenceAuditEventRepository.delete(auditEvent);
-            });
+        Instant before = Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS);
+        long start = System.nanoTime();
+        long deleted = 0;
+        try {
+            Long minId = persistenceAuditEventRepository.findMinIdByAuditEventDateBefore(before);
+            Long maxId = persistenceAuditEventRepository.findMaxIdByAuditEventDateBefore(before);
+            if (minId == null || maxId == null) {
+                return;
+            }
+            long chunkSize = Math.max(1, purgeProperties.getChunkSize());
+            for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+                long toId = Math.min(fromId + chunkSize - 1, maxId);
+                deleted += deleteChunk(fromId, toId, before);
+                if (toId < maxId && !pause()) {
+                    break;
+                }
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            purgedEventsCounter.increment(deleted);
+            purgeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Deleted {} audit events older than {} in {} ms", deleted, before, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private int deleteChunk(long fromId, long toId, Instant before) {
+        Integer deleted = purgeTransactionTemplate.execute(status -> {
+            persistenceAuditEventRepository.deleteDataByIdBetweenAndAuditEventDateBefore(fromId, toId, before);
+            return persistenceAuditEventRepository.deleteByIdBetweenAndAuditEventDateBefore(fromId, toId, before);
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    private boolean pause() {
+        if (purgeProperties.getPauseMillis() <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(purgeProperties.getPauseMillis());
+            return true;
+        } catch (InterruptedException e) {
+            log.warn("Audit events purge interrupted, remaining events will be deleted on the next run");
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
     public Page<AuditEvent> findAll(Pageable pageable) {
@@ -67,6 +153,46 @@ public class AuditEventService {
             .map(auditEventConverter::convertToAuditEvent);
     }
 
+    /**
+     * Pass all the events between two dates to a consumer, one at a time and in id order.
+     * <p>
+     * Events are read through a forward-only cursor and detached once consumed, so memory use does not
+     * depend on the number of events. Exceptions thrown by the consumer stop the export and close the cursor.
+     *
+     * @param fromDate the start of the time period, inclusive.
+     * @param toDate the end of the time period, exclusive.
+     * @param consumer the consumer of the events.
+     * @return the number of exported events.
+     */
+    @Transactional(readOnly = true)
+    public long exportByDates(Instant fromDate, Instant toDate, Consumer<AuditEvent> consumer) {
+        long count = 0;
+        try (Stream<PersistentAuditEvent> events = persistenceAuditEventRepository.streamAllByAuditEventDateBetween(fromDate, toDate)) {
+            for (PersistentAuditEvent event : (Iterable<PersistentAuditEvent>) events::iterator) {
+                consumer.accept(auditEventConverter.convertToAuditEvent(event));
+                entityManager.detach(event);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the hourly audit event counts between two dates, read from the pre-aggregated rollup table.
+     *
+     * @param fromDate the start of the time period, inclusive.
+     * @param toDate the end of the time period, exclusive.
+     * @param principal the principal to filter on, or {@code null} for all principals.
+     * @param type the event type to filter on, or {@code null} for all types.
+     * @return the counts, ordered by hour.
+     */
+    @Transactional(readOnly = true)
+    public List<AuditEventStatsDTO> findStats(Instant fromDate, Instant toDate, String principal, String type) {
+        return persistenceAuditEventRollupRepository.findStats(fromDate, toDate, principal, type).stream()
+            .map(AuditEventStatsDTO::new)
+            .collect(Collectors.toList());
+    }
+
     public Optional<AuditEvent> find(Long id) {
         return persistenceAuditEventRepository.findById(id)
             .map(auditEventConverter::convertToAuditEvent);
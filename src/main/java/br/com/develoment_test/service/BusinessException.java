@@ -0,0 +1,48 @@
+package br.com.develoment_test.service;
+
+import graphql.ErrorType;
+import graphql.GraphQLError;
+import graphql.language.SourceLocation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An expected error of a business rule, such as a login already in use.
+ * <p>
+ * These errors are frequent and carry no useful stack, so the exceptions capture none and do not record suppressed
+ * exceptions: they are immutable, and each type is thrown as a single preallocated instance. They are
+ * {@link GraphQLError}s, so the GraphQL servlet returns them to the client with their {@code code} extension, without
+ * building a {@link org.zalando.problem.Problem}.
+ */
+public abstract class BusinessException extends RuntimeException implements GraphQLError {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<String, Object> extensions;
+
+    protected BusinessException(String message, String code) {
+        super(message, null, false, false);
+        this.extensions = Collections.singletonMap("code", code);
+    }
+
+    public String getCode() {
+        return (String) extensions.get("code");
+    }
+
+    @Override
+    public List<SourceLocation> getLocations() {
+        return null;
+    }
+
+    @Override
+    public ErrorType getErrorType() {
+        return ErrorType.DataFetchingException;
+    }
+
+    @Override
+    public Map<String, Object> getExtensions() {
+        return extensions;
+    }
+}
@@ -1,9 +1,12 @@
 package br.com.develoment_test.service;
 
-public class EmailAlreadyUsedException extends RuntimeException {
+public class EmailAlreadyUsedException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final EmailAlreadyUsedException INSTANCE = new EmailAlreadyUsedException();
 
     public EmailAlreadyUsedException() {
-        super("Email is already in use!");
+        super("Email is already in use!", "EMAIL_ALREADY_USED");
     }
-
 }
@@ -1,10 +1,15 @@
 package br.com.develoment_test.service;
 
+import br.com.develoment_test.domain.Authority;
 import br.com.develoment_test.domain.Functionality;
 import br.com.develoment_test.repository.FunctionalityRepository;
+import br.com.develoment_test.service.dto.ChangeType;
+import br.com.develoment_test.service.dto.FunctionalityChangeDTO;
+import org.hibernate.proxy.HibernateProxy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +18,8 @@ import java.util.Optional;
 
 /**
  * Service Implementation for managing {@link Functionality}.
+ * <p>
+ * Changes are published as {@link FunctionalityChangeDTO} application events.
  */
 @Service
 @Transactional
@@ -22,8 +29,11 @@ public class FunctionalityService {
 
     private final FunctionalityRepository functionalityRepository;
 
-    public FunctionalityService(FunctionalityRepository functionalityRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FunctionalityService(FunctionalityRepository functionalityRepository, ApplicationEventPublisher eventPublisher) {
         this.functionalityRepository = functionalityRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -33,7 +43,10 @@ public class FunctionalityService {
      * @return the persisted entity.
      */
     public Functionality save(Functionality functionality) {
-        return functionalityRepository.save(functionality);
+        ChangeType type = functionality.getId() == null ? ChangeType.CREATED : ChangeType.UPDATED;
+        Functionality result = functionalityRepository.save(functionality);
+        eventPublisher.publishEvent(new FunctionalityChangeDTO(type, result.getId(), detachedCopy(result)));
+        return result;
     }
 
     /**
@@ -68,5 +81,19 @@ public class FunctionalityService {
     public void delete(Long id) {
         log.debug("Request to delete Functionality : {}", id);
         functionalityRepository.deleteById(id);
+        eventPublisher.publishEvent(new FunctionalityChangeDTO(ChangeType.DELETED, id, null));
+    }
+
+    /**
+     * Copy a functionality so that it can be read after the transaction, without loading its authority.
+     */
+    private static Functionality detachedCopy(Functionality functionality) {
+        Authority authority = functionality.getAuthority();
+        if (authority instanceof HibernateProxy) {
+            authority = new Authority((String) ((HibernateProxy) authority).getHibernateLazyInitializer().getIdentifier());
+        } else if (authority != null) {
+            authority = new Authority(authority.getName());
+        }
+        return new Functionality(functionality.getId(), functionality.getName(), authority);
     }
 }
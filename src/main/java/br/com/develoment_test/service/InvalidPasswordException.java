@@ -1,9 +1,12 @@
 package br.com.develoment_test.service;
 
-public class InvalidPasswordException extends RuntimeException {
+public class InvalidPasswordException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final InvalidPasswordException INSTANCE = new InvalidPasswordException();
 
     public InvalidPasswordException() {
-        super("Incorrect password");
+        super("Incorrect password", "INVALID_PASSWORD");
     }
-
 }
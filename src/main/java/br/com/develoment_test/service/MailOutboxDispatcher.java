@@ -0,0 +1,177 @@
+package br.com.develoment_test.service;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import br.com.develoment_test.domain.MailOutboxMessage;
+import br.com.develoment_test.domain.enumeration.MailOutboxStatus;
+import br.com.develoment_test.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the emails of the {@link MailOutboxMessage} outbox.
+ * <p>
+ * Each dispatch claims a batch of pending messages with a lease, so that several nodes can dispatch
+ * concurrently without sending a message twice, then sends them outside of any transaction with
+ * {@link MailService#sendBatch}, over pooled SMTP connections from the {@link SmtpTransportPool}.
+ * Failed messages are retried with an exponential backoff.
+ */
+@Service
+public class MailOutboxDispatcher {
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final MailService mailService;
+
+    private final ApplicationProperties.Mail.Outbox outboxProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final Timer sendTimer;
+
+    private final Timer deliveryTimer;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter failedCounter;
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository, MailService mailService,
+                                ApplicationProperties applicationProperties, PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailService = mailService;
+        this.outboxProperties = applicationProperties.getMail().getOutbox();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("mail.outbox.backlog", backlog, AtomicLong::get)
+            .description("Number of emails waiting in the outbox")
+            .register(meterRegistry);
+        this.sendTimer = Timer.builder("mail.outbox.send")
+            .description("Duration of the SMTP send of one email")
+            .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("mail.outbox.delivery")
+            .description("Time between the queueing of an email and its successful send")
+            .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("mail.outbox.messages", "outcome", "sent");
+        this.retriedCounter = meterRegistry.counter("mail.outbox.messages", "outcome", "retried");
+        this.failedCounter = meterRegistry.counter("mail.outbox.messages", "outcome", "failed");
+    }
+
+    /**
+     * Send the pending emails, one batch after the other, until the outbox has no more claimable message.
+     */
+    @Scheduled(fixedDelayString = "${application.mail.outbox.poll-interval-millis:5000}")
+    public void dispatch() {
+        int claimed;
+        do {
+            List<MailOutboxMessage> batch = claimBatch();
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+                transactionTemplate.execute(status -> mailOutboxRepository.saveAll(batch));
+            }
+            claimed = batch.size();
+        } while (claimed >= outboxProperties.getBatchSize());
+        backlog.set(mailOutboxRepository.countByStatus(MailOutboxStatus.PENDING));
+    }
+
+    private List<MailOutboxMessage> claimBatch() {
+        Instant now = Instant.now();
+        // The lease identifies the claim, so it is kept at a precision the database stores exactly
+        Instant claimedUntil = now.plusSeconds(outboxProperties.getLeaseSeconds()).truncatedTo(ChronoUnit.MILLIS);
+        List<MailOutboxMessage> claimed = transactionTemplate.execute(status -> {
+            List<Long> ids = mailOutboxRepository.findClaimableIds(MailOutboxStatus.PENDING, now,
+                PageRequest.of(0, outboxProperties.getBatchSize()));
+            if (ids.isEmpty()) {
+                return Collections.<MailOutboxMessage>emptyList();
+            }
+            mailOutboxRepository.claim(ids, MailOutboxStatus.PENDING, owner, claimedUntil, now);
+            return mailOutboxRepository.findAllByIdInAndClaimedByAndClaimedUntilOrderById(ids, owner, claimedUntil);
+        });
+        return claimed == null ? Collections.emptyList() : claimed;
+    }
+
+    /**
+     * Send the messages over as few SMTP sessions as possible.
+     */
+    private void sendBatch(List<MailOutboxMessage> batch) {
+        for (MailOutboxMessage message : batch) {
+            message.setClaimedBy(null);
+            message.setClaimedUntil(null);
+            message.setAttempts(message.getAttempts() + 1);
+        }
+        mailService.sendBatch(batch, new MailService.BatchListener() {
+
+            private long start = System.nanoTime();
+
+            @Override
+            public void onSent(MailOutboxMessage message) {
+                recordSend();
+                MailOutboxDispatcher.this.onSent(message);
+            }
+
+            @Override
+            public void onFailure(MailOutboxMessage message, Exception e) {
+                recordSend();
+                MailOutboxDispatcher.this.onFailure(message, e);
+            }
+
+            private void recordSend() {
+                long end = System.nanoTime();
+                sendTimer.record(end - start, TimeUnit.NANOSECONDS);
+                start = end;
+            }
+        });
+    }
+
+    private void onSent(MailOutboxMessage message) {
+        Instant now = Instant.now();
+        message.setStatus(MailOutboxStatus.SENT);
+        message.setSentDate(now);
+        message.setLastError(null);
+        deliveryTimer.record(Duration.between(message.getCreatedDate(), now));
+        sentCounter.increment();
+    }
+
+    private void onFailure(MailOutboxMessage message, Exception e) {
+        message.setLastError(StringUtils.abbreviate(e.getMessage(), 255));
+        if (message.getAttempts() >= outboxProperties.getMaxAttempts()) {
+            message.setStatus(MailOutboxStatus.FAILED);
+            failedCounter.increment();
+            log.warn("Email could not be sent to '{}' after {} attempts, giving up", message.getRecipient(), message.getAttempts(), e);
+        } else {
+            message.setNextAttemptDate(Instant.now().plusSeconds(backoffSeconds(message.getAttempts())));
+            retriedCounter.increment();
+            log.warn("Email could not be sent to '{}', will retry at {}", message.getRecipient(), message.getNextAttemptDate(), e);
+        }
+    }
+
+    private long backoffSeconds(int attempts) {
+        long backoff = outboxProperties.getInitialBackoffSeconds() << Math.min(attempts - 1, 20);
+        return Math.min(backoff, outboxProperties.getMaxBackoffSeconds());
+    }
+}
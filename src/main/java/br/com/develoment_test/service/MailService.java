@@ -1,99 +1,174 @@
 package br.com.develoment_test.service;
 
+import br.com.develoment_test.domain.MailOutboxMessage;
 import br.com.develoment_test.domain.User;
+import br.com.develoment_test.repository.MailOutboxRepository;
 import io.github.jhipster.config.JHipsterProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
 import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are written to the {@link MailOutboxMessage} outbox in the transaction of the caller, so they are only
+ * sent if the change that triggered them is committed. {@link MailOutboxDispatcher} sends them afterwards, in
+ * batches over the pooled SMTP sessions of the {@link SmtpTransportPool}.
  */
 @Service
+@Transactional
 public class MailService {
 
     private final Logger log = LoggerFactory.getLogger(MailService.class);
 
-    private static final String USER = "user";
+    private final MailOutboxRepository mailOutboxRepository;
 
-    private static final String BASE_URL = "baseUrl";
-
-    private final JHipsterProperties jHipsterProperties;
+    private final MailTemplateCache mailTemplateCache;
 
     private final JavaMailSender javaMailSender;
 
-    private final MessageSource messageSource;
+    private final SmtpTransportPool smtpTransportPool;
 
-    private final SpringTemplateEngine templateEngine;
+    private final JHipsterProperties jHipsterProperties;
 
-    public MailService(JHipsterProperties jHipsterProperties, JavaMailSender javaMailSender,
-            MessageSource messageSource, SpringTemplateEngine templateEngine) {
+    public MailService(MailOutboxRepository mailOutboxRepository, MailTemplateCache mailTemplateCache,
+                       JavaMailSender javaMailSender, SmtpTransportPool smtpTransportPool, JHipsterProperties jHipsterProperties) {
 
-        this.jHipsterProperties = jHipsterProperties;
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailTemplateCache = mailTemplateCache;
         this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+        this.smtpTransportPool = smtpTransportPool;
+        this.jHipsterProperties = jHipsterProperties;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        log.debug("Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+        log.debug("Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart, isHtml, to, subject, content);
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-        }  catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
-        }
+        mailOutboxRepository.save(new MailOutboxMessage(to, subject, content, isMultipart, isHtml, Instant.now()));
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
+        MailOutboxMessage message = renderEmailFromTemplate(user, templateName, titleKey);
+        if (message != null) {
+            mailOutboxRepository.save(message);
+        }
+    }
+
+    /**
+     * Queue the same templated email for several users at once, to be sent over shared SMTP sessions.
+     *
+     * @param users the recipients, users without email are skipped.
+     * @param templateName the name of the template.
+     * @param titleKey the message key of the subject.
+     */
+    public void sendEmailsFromTemplate(Collection<User> users, String templateName, String titleKey) {
+        List<MailOutboxMessage> messages = new ArrayList<>(users.size());
+        for (User user : users) {
+            MailOutboxMessage message = renderEmailFromTemplate(user, templateName, titleKey);
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        log.debug("Queue {} emails from template {}", messages.size(), templateName);
+        mailOutboxRepository.saveAll(messages);
+    }
+
+    private MailOutboxMessage renderEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
-            return;
+            return null;
         }
         Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        String content = mailTemplateCache.render(templateName, user, locale);
+        String subject = mailTemplateCache.getSubject(titleKey, locale);
+        return new MailOutboxMessage(user.getEmail(), subject, content, false, true, Instant.now());
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
     }
+
+    public void sendCreationEmails(Collection<User> users) {
+        sendEmailsFromTemplate(users, "mail/creationEmail", "email.activation.title");
+    }
+
+    public void sendPasswordResetMails(Collection<User> users) {
+        sendEmailsFromTemplate(users, "mail/passwordResetEmail", "email.reset.title");
+    }
+
+    /**
+     * Send a batch of emails now, outside of any transaction, over as few pooled SMTP sessions as possible: a
+     * session sends emails until it reaches its maximum number of messages or fails.
+     *
+     * @param messages the emails, whose status is left to the caller.
+     * @param listener told of the outcome of each email, in order, as soon as it is known.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sendBatch(List<MailOutboxMessage> messages, BatchListener listener) {
+        SmtpTransportPool.PooledTransport transport = null;
+        try {
+            for (MailOutboxMessage message : messages) {
+                try {
+                    if (transport != null && !transport.hasCapacity()) {
+                        transport.close();
+                        transport = null;
+                    }
+                    if (transport == null) {
+                        transport = smtpTransportPool.borrow();
+                    }
+                    transport.send(createMimeMessage(message));
+                    log.debug("Sent email {}", message);
+                    listener.onSent(message);
+                } catch (MailException | MessagingException e) {
+                    listener.onFailure(message, e);
+                }
+            }
+        } finally {
+            if (transport != null) {
+                transport.close();
+            }
+        }
+    }
+
+    private MimeMessage createMimeMessage(MailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isMultipart(), StandardCharsets.UTF_8.name());
+        helper.setTo(message.getRecipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getContent(), message.isHtml());
+        return mimeMessage;
+    }
+
+    /**
+     * Receives the outcome of each email of a batch.
+     */
+    public interface BatchListener {
+
+        void onSent(MailOutboxMessage message);
+
+        void onFailure(MailOutboxMessage message, Exception e);
+    }
 }
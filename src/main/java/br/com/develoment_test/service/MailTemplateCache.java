@@ -0,0 +1,226 @@
+package br.com.develoment_test.service;
+
+import br.com.develoment_test.domain.User;
+import io.github.jhipster.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Renders the mail templates, compiling each of them once per locale.
+ * <p>
+ * A template is first rendered for a placeholder user whose properties hold unique tokens, and the output is split
+ * around these tokens into constant segments and user slots. Each email is then built by concatenating the segments
+ * with the escaped properties of the recipient. The first email built from a compiled template is checked against a
+ * full Thymeleaf rendering, and the template is always rendered by Thymeleaf if they differ, for instance when a
+ * property is transformed by the template.
+ * <p>
+ * Nothing is cached when the Thymeleaf cache is disabled, so that templates can be edited in development.
+ */
+@Component
+public class MailTemplateCache {
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateCache.class);
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final MessageSource messageSource;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final boolean enabled;
+
+    private final Map<String, Function<User, String>> slots = new LinkedHashMap<>();
+
+    private final ConcurrentMap<TemplateKey, CompiledTemplate> templates = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<TemplateKey, String> subjects = new ConcurrentHashMap<>();
+
+    public MailTemplateCache(JHipsterProperties jHipsterProperties, MessageSource messageSource,
+                             SpringTemplateEngine templateEngine, @Value("${spring.thymeleaf.cache:true}") boolean enabled) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.messageSource = messageSource;
+        this.templateEngine = templateEngine;
+        this.enabled = enabled;
+        // Logins are lower-cased by the User entity, so are the tokens.
+        String prefix = "mailslot" + UUID.randomUUID().toString().replace("-", "");
+        slots.put(prefix + "login", User::getLogin);
+        slots.put(prefix + "email", User::getEmail);
+        slots.put(prefix + "activationkey", User::getActivationKey);
+        slots.put(prefix + "resetkey", User::getResetKey);
+    }
+
+    /**
+     * Render a mail template for a user.
+     *
+     * @param templateName the name of the template.
+     * @param user the recipient.
+     * @param locale the locale of the recipient.
+     * @return the rendered content.
+     */
+    public String render(String templateName, User user, Locale locale) {
+        if (!enabled) {
+            return process(templateName, user, locale);
+        }
+        CompiledTemplate template = templates.computeIfAbsent(new TemplateKey(templateName, locale),
+            key -> compile(templateName, locale));
+        if (template.verified) {
+            return template.fill(user);
+        }
+        String content = process(templateName, user, locale);
+        if (!template.disabled) {
+            if (content.equals(template.fill(user))) {
+                template.verified = true;
+            } else {
+                template.disabled = true;
+                log.warn("Mail template {} for locale {} cannot be pre-rendered, it will be rendered for each email",
+                    templateName, locale);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Resolve the subject of an email.
+     *
+     * @param titleKey the message key of the subject.
+     * @param locale the locale of the recipient.
+     * @return the subject.
+     */
+    public String getSubject(String titleKey, Locale locale) {
+        if (!enabled) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects.computeIfAbsent(new TemplateKey(titleKey, locale),
+            key -> messageSource.getMessage(titleKey, null, locale));
+    }
+
+    private String process(String templateName, User user, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    private CompiledTemplate compile(String templateName, Locale locale) {
+        User placeholder = new User();
+        placeholder.setLangKey(locale.toLanguageTag());
+        List<String> tokens = new ArrayList<>(slots.keySet());
+        placeholder.setLogin(tokens.get(0));
+        placeholder.setEmail(tokens.get(1));
+        placeholder.setActivationKey(tokens.get(2));
+        placeholder.setResetKey(tokens.get(3));
+        String rendered = process(templateName, placeholder, locale);
+
+        List<String> segments = new ArrayList<>();
+        List<Function<User, String>> values = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int next = -1;
+            String token = null;
+            for (String candidate : tokens) {
+                int index = rendered.indexOf(candidate, start);
+                if (index >= 0 && (next < 0 || index < next)) {
+                    next = index;
+                    token = candidate;
+                }
+            }
+            if (token == null) {
+                break;
+            }
+            segments.add(rendered.substring(start, next));
+            values.add(slots.get(token));
+            start = next + token.length();
+        }
+        segments.add(rendered.substring(start));
+        log.debug("Compiled mail template {} for locale {} into {} segments", templateName, locale, segments.size());
+        return new CompiledTemplate(segments.toArray(new String[0]), values);
+    }
+
+    /**
+     * A template rendered for a locale, split around the user properties.
+     */
+    private static final class CompiledTemplate {
+
+        private final String[] segments;
+
+        private final List<Function<User, String>> values;
+
+        private final int length;
+
+        private volatile boolean verified;
+
+        private volatile boolean disabled;
+
+        private CompiledTemplate(String[] segments, List<Function<User, String>> values) {
+            this.segments = segments;
+            this.values = values;
+            int total = 0;
+            for (String segment : segments) {
+                total += segment.length();
+            }
+            this.length = total;
+        }
+
+        private String fill(User user) {
+            StringBuilder content = new StringBuilder(length + 64 * values.size());
+            for (int i = 0; i < values.size(); i++) {
+                content.append(segments[i]);
+                String value = values.get(i).apply(user);
+                if (value != null) {
+                    content.append(HtmlUtils.htmlEscape(value));
+                }
+            }
+            return content.append(segments[segments.length - 1]).toString();
+        }
+    }
+
+    private static final class TemplateKey {
+
+        private final String name;
+
+        private final Locale locale;
+
+        private TemplateKey(String name, Locale locale) {
+            this.name = name;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TemplateKey)) {
+                return false;
+            }
+            TemplateKey other = (TemplateKey) o;
+            return name.equals(other.name) && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, locale);
+        }
+    }
+}
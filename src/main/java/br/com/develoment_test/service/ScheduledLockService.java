@@ -0,0 +1,95 @@
+package br.com.develoment_test.service;
+
+import br.com.develoment_test.domain.ScheduledLock;
+import br.com.develoment_test.repository.ScheduledLockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service for taking and releasing the {@link ScheduledLock}s of the scheduled jobs.
+ * <p>
+ * Each lock is taken and released in its own transaction, so that it is visible to the other nodes
+ * while the job runs.
+ */
+@Service
+public class ScheduledLockService {
+
+    private final Logger log = LoggerFactory.getLogger(ScheduledLockService.class);
+
+    private final ScheduledLockRepository scheduledLockRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String owner;
+
+    public ScheduledLockService(ScheduledLockRepository scheduledLockRepository, PlatformTransactionManager transactionManager) {
+        this.scheduledLockRepository = scheduledLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Take the lock, unless another node holds it.
+     *
+     * @param name the name of the lock.
+     * @param lockAtMostFor how long the lock is held if the node dies before releasing it.
+     * @return the date the lock was taken at, or empty if it is held by another node.
+     */
+    public Optional<Instant> tryLock(String name, Duration lockAtMostFor) {
+        Instant now = Instant.now();
+        Instant lockUntil = now.plus(lockAtMostFor);
+        Integer updated = transactionTemplate.execute(status -> scheduledLockRepository.lock(name, lockUntil, now, owner));
+        if (updated != null && updated > 0) {
+            return Optional.of(now);
+        }
+        try {
+            // A plain insert, as a merge of the entity would overwrite a lock created meanwhile by another node
+            transactionTemplate.execute(status -> scheduledLockRepository.insert(name, lockUntil, now, owner));
+            return Optional.of(now);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lock {} is held by another node", name);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Release the lock, keeping it at least {@code lockAtLeastFor} after it was taken.
+     *
+     * @param name the name of the lock.
+     * @param lockedAt the date the lock was taken at.
+     * @param lockAtLeastFor the minimum time the lock is held, to absorb clock differences between nodes.
+     */
+    public void unlock(String name, Instant lockedAt, Duration lockAtLeastFor) {
+        Instant now = Instant.now();
+        Instant minimumLockUntil = lockedAt.plus(lockAtLeastFor);
+        Instant lockUntil = minimumLockUntil.isAfter(now) ? minimumLockUntil : now;
+        long durationMillis = Duration.between(lockedAt, now).toMillis();
+        transactionTemplate.execute(status -> scheduledLockRepository.unlock(name, lockUntil, now, durationMillis, owner));
+    }
+
+    /**
+     * Get all the locks, with the last run of their job.
+     *
+     * @return the list of locks.
+     */
+    public List<ScheduledLock> findAll() {
+        return scheduledLockRepository.findAll();
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,183 @@
+package br.com.develoment_test.service;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.util.Date;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small pool of long-lived SMTP connections, so that many emails are sent per session instead of paying
+ * the connection, TLS handshake and authentication for each of them.
+ * <p>
+ * Idle connections are checked with an SMTP {@code NOOP} before being reused, and are replaced when they
+ * have been idle for too long or have sent their maximum number of messages.
+ */
+@Component
+public class SmtpTransportPool implements DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+
+    private final ApplicationProperties.Mail.TransportPool poolProperties;
+
+    private final BlockingQueue<PooledTransport> idleTransports = new LinkedBlockingQueue<>();
+
+    private final Semaphore permits;
+
+    public SmtpTransportPool(JavaMailSender javaMailSender, ApplicationProperties applicationProperties) {
+        if (!(javaMailSender instanceof JavaMailSenderImpl)) {
+            throw new IllegalStateException("SMTP transport pooling requires a JavaMailSenderImpl, got " + javaMailSender.getClass());
+        }
+        this.mailSender = (JavaMailSenderImpl) javaMailSender;
+        this.poolProperties = applicationProperties.getMail().getTransportPool();
+        this.permits = new Semaphore(Math.max(1, poolProperties.getSize()), true);
+    }
+
+    /**
+     * Borrow a connected transport, waiting for one to be released if they are all in use.
+     *
+     * @return the transport, to be closed to give it back to the pool.
+     * @throws MessagingException if no connection could be opened.
+     */
+    public PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(poolProperties.getBorrowTimeoutSeconds(), TimeUnit.SECONDS)) {
+                throw new MessagingException("No SMTP connection available after " + poolProperties.getBorrowTimeoutSeconds() + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            PooledTransport transport;
+            while ((transport = idleTransports.poll()) != null) {
+                if (transport.isReusable()) {
+                    return transport;
+                }
+                transport.disconnect();
+            }
+            return new PooledTransport(connect());
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            // Same as JavaMailSenderImpl: an empty username means no authentication.
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return transport;
+    }
+
+    private void release(PooledTransport transport) {
+        try {
+            if (!transport.hasCapacity() || !idleTransports.offer(transport)) {
+                transport.disconnect();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            transport.disconnect();
+        }
+    }
+
+    /**
+     * An SMTP connection borrowed from the pool.
+     */
+    public final class PooledTransport implements AutoCloseable {
+
+        private final Transport transport;
+
+        private long lastUsedNanos = System.nanoTime();
+
+        private int messagesSent;
+
+        private boolean broken;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Send one message over this connection.
+         *
+         * @param message the message to send.
+         * @throws MessagingException if the message could not be sent, the connection is then discarded
+         * when it is no longer usable.
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            try {
+                if (message.getSentDate() == null) {
+                    message.setSentDate(new Date());
+                }
+                message.saveChanges();
+                transport.sendMessage(message, message.getAllRecipients());
+                messagesSent++;
+                lastUsedNanos = System.nanoTime();
+            } catch (MessagingException e) {
+                broken = !transport.isConnected();
+                throw e;
+            }
+        }
+
+        /**
+         * @return whether more messages can be sent over this connection.
+         */
+        public boolean hasCapacity() {
+            return !broken && messagesSent < poolProperties.getMaxMessagesPerConnection();
+        }
+
+        private boolean isReusable() {
+            long idleSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - lastUsedNanos);
+            return hasCapacity() &&
+                idleSeconds < poolProperties.getMaxIdleSeconds() &&
+                // Sends an SMTP NOOP on a connected transport
+                transport.isConnected();
+        }
+
+        private void disconnect() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Could not close SMTP connection: {}", e.getMessage());
+            }
+        }
+
+        /**
+         * Give the connection back to the pool.
+         */
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+}
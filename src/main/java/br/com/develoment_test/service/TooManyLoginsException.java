@@ -0,0 +1,12 @@
+package br.com.develoment_test.service;
+
+public class TooManyLoginsException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final TooManyLoginsException INSTANCE = new TooManyLoginsException();
+
+    public TooManyLoginsException() {
+        super("Quantidade de logins informados excede o limite.", "TOO_MANY_LOGINS");
+    }
+}
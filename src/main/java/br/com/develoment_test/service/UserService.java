@@ -1,5 +1,7 @@
 package br.com.develoment_test.service;
 
+import br.com.develoment_test.aop.scheduling.SchedulerLock;
+import br.com.develoment_test.config.ApplicationProperties;
 import br.com.develoment_test.config.Constants;
 import br.com.develoment_test.domain.Authority;
 import br.com.develoment_test.domain.User;
@@ -7,10 +9,16 @@ import br.com.develoment_test.repository.AuthorityRepository;
 import br.com.develoment_test.repository.UserRepository;
 import br.com.develoment_test.security.AuthoritiesConstants;
 import br.com.develoment_test.security.SecurityUtils;
+import br.com.develoment_test.service.dto.BulkOutcome;
+import br.com.develoment_test.service.dto.ChangeType;
+import br.com.develoment_test.service.dto.UserBulkChangeDTO;
+import br.com.develoment_test.service.dto.UserBulkOutcomeDTO;
+import br.com.develoment_test.service.dto.UserChangeDTO;
 import br.com.develoment_test.service.dto.UserDTO;
 import io.github.jhipster.security.RandomUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -20,14 +28,24 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Service class for managing users.
+ * <p>
+ * Changes are published as {@link UserChangeDTO} application events, or as one {@link UserBulkChangeDTO} for the
+ * bulk operations.
  */
 @Service
 @Transactional
@@ -41,10 +59,21 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final MailService mailService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int bulkMaxLogins;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository,
+                       MailService mailService, ApplicationEventPublisher eventPublisher,
+                       ApplicationProperties applicationProperties) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.mailService = mailService;
+        this.eventPublisher = eventPublisher;
+        this.bulkMaxLogins = applicationProperties.getUsers().getBulkMaxLogins();
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -55,6 +84,7 @@ public class UserService {
                 user.setActivated(true);
                 user.setActivationKey(null);
                 log.debug("Activated user: {}", user);
+                publishChange(ChangeType.UPDATED, user);
                 return user;
             });
     }
@@ -78,6 +108,7 @@ public class UserService {
             .map(user -> {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
+                mailService.sendPasswordResetMail(user);
                 return user;
             });
     }
@@ -86,13 +117,13 @@ public class UserService {
         userRepository.findOneByLogin(userDTO.getLogin().toLowerCase()).ifPresent(existingUser -> {
             boolean removed = removeNonActivatedUser(existingUser);
             if (!removed) {
-                throw new UsernameAlreadyUsedException();
+                throw UsernameAlreadyUsedException.INSTANCE;
             }
         });
         userRepository.findOneByEmailIgnoreCase(userDTO.getEmail()).ifPresent(existingUser -> {
             boolean removed = removeNonActivatedUser(existingUser);
             if (!removed) {
-                throw new EmailAlreadyUsedException();
+                throw EmailAlreadyUsedException.INSTANCE;
             }
         });
         User newUser = new User();
@@ -112,6 +143,7 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
+        publishChange(ChangeType.CREATED, newUser);
         return newUser;
     }
 
@@ -121,6 +153,7 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        publishChange(ChangeType.DELETED, existingUser);
         return true;
     }
 
@@ -145,6 +178,8 @@ public class UserService {
         authorities.add(authority);
         user.setAuthorities(authorities);
         userRepository.save(user);
+        mailService.sendCreationEmail(user);
+        publishChange(ChangeType.CREATED, user);
         return user;
     }
 
@@ -162,6 +197,7 @@ public class UserService {
 	                user.setEmail(email.toLowerCase());
                 }
                 user.setLangKey(langKey);
+                publishChange(ChangeType.UPDATED, user);
             });
     }
 
@@ -188,18 +224,158 @@ public class UserService {
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
-            .map(UserDTO::new);
+            .map(UserDTO::new)
+            .map(user -> {
+                eventPublisher.publishEvent(new UserChangeDTO(ChangeType.UPDATED, user.getLogin(), user));
+                return user;
+            });
     }
 
     public User upgradeAuthoritiesUser(String loginUser) {
         User upgradeUser = userRepository.findByLogin(loginUser);
         Set<Authority> authorities = upgradeUser.getAuthorities();
         authorities.add(authorityRepository.getOne(AuthoritiesConstants.ADMIN));
-        return userRepository.save(upgradeUser);
+        User result = userRepository.save(upgradeUser);
+        publishChange(ChangeType.UPDATED, result);
+        return result;
     }
 
     public void deleteUser(String login) {
-        userRepository.findOneByLogin(login).ifPresent(userRepository::delete);
+        userRepository.findOneByLogin(login).ifPresent(user -> {
+            userRepository.delete(user);
+            publishChange(ChangeType.DELETED, user);
+        });
+    }
+
+    /**
+     * Give the admin authority to several users, with one query loading them and one statement inserting the missing
+     * authorities.
+     *
+     * @param logins the logins of the users.
+     * @return the outcome for each login, in the order of the logins.
+     * @throws TooManyLoginsException if there are more logins than {@code application.users.bulk-max-logins}.
+     */
+    public List<UserBulkOutcomeDTO> upgradeAuthoritiesUsers(Collection<String> logins) {
+        Set<String> requested = normalizeLogins(logins);
+        if (requested.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, User> users = byLogin(userRepository.findAllWithAuthoritiesByLoginIn(requested));
+        Map<String, BulkOutcome> outcomes = new LinkedHashMap<>();
+        List<String> updated = new ArrayList<>();
+        for (String login : requested) {
+            User user = users.get(login);
+            if (user == null) {
+                outcomes.put(login, BulkOutcome.NOT_FOUND);
+            } else if (user.getAuthorities().stream().anyMatch(authority -> AuthoritiesConstants.ADMIN.equals(authority.getName()))) {
+                outcomes.put(login, BulkOutcome.UNCHANGED);
+            } else {
+                outcomes.put(login, BulkOutcome.UPDATED);
+                updated.add(login);
+            }
+        }
+        List<UserChangeDTO> changes = new ArrayList<>();
+        if (!updated.isEmpty()) {
+            userRepository.insertAuthorityByLoginIn(updated, AuthoritiesConstants.ADMIN);
+            for (User user : userRepository.findAllWithAuthoritiesByLoginIn(updated)) {
+                changes.add(new UserChangeDTO(ChangeType.UPDATED, user.getLogin(), new UserDTO(user)));
+            }
+        }
+        return publishBulkChange(outcomes, changes);
+    }
+
+    /**
+     * Delete several users, with one statement for their authorities and one for the users.
+     *
+     * @param logins the logins of the users.
+     * @return the outcome for each login, in the order of the logins.
+     * @throws TooManyLoginsException if there are more logins than {@code application.users.bulk-max-logins}.
+     */
+    public List<UserBulkOutcomeDTO> deleteUsers(Collection<String> logins) {
+        Set<String> requested = normalizeLogins(logins);
+        if (requested.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, User> users = byLogin(userRepository.findAllByLoginIn(requested));
+        Map<String, BulkOutcome> outcomes = new LinkedHashMap<>();
+        List<UserChangeDTO> changes = new ArrayList<>();
+        for (String login : requested) {
+            if (users.containsKey(login)) {
+                outcomes.put(login, BulkOutcome.DELETED);
+                changes.add(new UserChangeDTO(ChangeType.DELETED, login, null));
+            } else {
+                outcomes.put(login, BulkOutcome.NOT_FOUND);
+            }
+        }
+        if (!users.isEmpty()) {
+            List<Long> ids = users.values().stream().map(User::getId).collect(Collectors.toList());
+            userRepository.deleteAuthoritiesByUserIdIn(ids);
+            userRepository.deleteAllByIdIn(ids);
+        }
+        return publishBulkChange(outcomes, changes);
+    }
+
+    /**
+     * Activate or deactivate several users with one update statement.
+     *
+     * @param logins the logins of the users.
+     * @param activated whether the users are activated.
+     * @return the outcome for each login, in the order of the logins.
+     * @throws TooManyLoginsException if there are more logins than {@code application.users.bulk-max-logins}.
+     */
+    public List<UserBulkOutcomeDTO> setActivated(Collection<String> logins, boolean activated) {
+        Set<String> requested = normalizeLogins(logins);
+        if (requested.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, User> users = byLogin(userRepository.findAllByLoginIn(requested));
+        Map<String, BulkOutcome> outcomes = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (String login : requested) {
+            User user = users.get(login);
+            if (user == null) {
+                outcomes.put(login, BulkOutcome.NOT_FOUND);
+            } else if (user.getActivated() == activated) {
+                outcomes.put(login, BulkOutcome.UNCHANGED);
+            } else {
+                outcomes.put(login, BulkOutcome.UPDATED);
+                ids.add(user.getId());
+            }
+        }
+        List<UserChangeDTO> changes = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            userRepository.updateActivatedByIdIn(ids, activated,
+                SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM_ACCOUNT), Instant.now());
+            List<String> updated = outcomes.entrySet().stream()
+                .filter(entry -> entry.getValue() == BulkOutcome.UPDATED)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+            for (User user : userRepository.findAllWithAuthoritiesByLoginIn(updated)) {
+                changes.add(new UserChangeDTO(ChangeType.UPDATED, user.getLogin(), new UserDTO(user)));
+            }
+        }
+        return publishBulkChange(outcomes, changes);
+    }
+
+    private Set<String> normalizeLogins(Collection<String> logins) {
+        if (logins.size() > bulkMaxLogins) {
+            throw TooManyLoginsException.INSTANCE;
+        }
+        return logins.stream().map(String::toLowerCase).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Map<String, User> byLogin(List<User> users) {
+        return users.stream().collect(Collectors.toMap(User::getLogin, Function.identity()));
+    }
+
+    private List<UserBulkOutcomeDTO> publishBulkChange(Map<String, BulkOutcome> outcomes, List<UserChangeDTO> changes) {
+        if (!changes.isEmpty()) {
+            log.debug("Bulk change of {} users", changes.size());
+            eventPublisher.publishEvent(new UserBulkChangeDTO(changes));
+        }
+        return outcomes.entrySet().stream()
+            .map(entry -> new UserBulkOutcomeDTO(entry.getKey(), entry.getValue()))
+            .collect(Collectors.toList());
     }
 
     public void changePassword(String currentClearTextPassword, String newPassword) {
@@ -208,7 +384,7 @@ public class UserService {
             .ifPresent(user -> {
                 String currentEncryptedPassword = user.getPassword();
                 if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
-                    throw new InvalidPasswordException();
+                    throw InvalidPasswordException.INSTANCE;
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
@@ -225,6 +401,18 @@ public class UserService {
         return userRepository.findOneWithAuthoritiesByLogin(login);
     }
 
+    /**
+     * Get a user by login, joining the authorities only when they are needed.
+     *
+     * @param login the login of the user.
+     * @param withAuthorities whether the authorities are fetched with the user.
+     * @return the user.
+     */
+    @Transactional(readOnly = true)
+    public Optional<User> getUserByLogin(String login, boolean withAuthorities) {
+        return withAuthorities ? userRepository.findOneWithAuthoritiesByLogin(login) : userRepository.findOneByLogin(login);
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserWithAuthorities(Long id) {
         return userRepository.findOneWithAuthoritiesById(id);
@@ -241,15 +429,21 @@ public class UserService {
      * This is scheduled to get fired everyday, at 01:00 (am).
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @SchedulerLock(name = "removeNotActivatedUsers", lockAtMostFor = "PT1H", lockAtLeastFor = "PT5M")
     public void removeNotActivatedUsers() {
         userRepository
             .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
             .forEach(user -> {
                 log.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
+                publishChange(ChangeType.DELETED, user);
             });
     }
 
+    private void publishChange(ChangeType type, User user) {
+        eventPublisher.publishEvent(new UserChangeDTO(type, user.getLogin(), type == ChangeType.DELETED ? null : new UserDTO(user)));
+    }
+
     /**
      * Gets a list of all the authorities.
      * @return a list of all the authorities.
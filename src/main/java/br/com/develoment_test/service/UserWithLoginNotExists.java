@@ -1,8 +1,12 @@
 package br.com.develoment_test.service;
 
-public class UserWithLoginNotExists extends RuntimeException {
+public class UserWithLoginNotExists extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final UserWithLoginNotExists INSTANCE = new UserWithLoginNotExists();
 
     public UserWithLoginNotExists() {
-        super("Usuário com o login informado não existe.");
+        super("Usuário com o login informado não existe.", "USER_NOT_FOUND");
     }
 }
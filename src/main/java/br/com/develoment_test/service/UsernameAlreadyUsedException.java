@@ -1,9 +1,12 @@
 package br.com.develoment_test.service;
 
-public class UsernameAlreadyUsedException extends RuntimeException {
+public class UsernameAlreadyUsedException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final UsernameAlreadyUsedException INSTANCE = new UsernameAlreadyUsedException();
 
     public UsernameAlreadyUsedException() {
-        super("Login name already used!");
+        super("Login name already used!", "LOGIN_ALREADY_USED");
     }
-
 }
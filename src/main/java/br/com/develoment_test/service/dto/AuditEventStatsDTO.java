@@ -0,0 +1,72 @@
+package br.com.develoment_test.service.dto;
+
+import br.com.develoment_test.domain.PersistentAuditEventRollup;
+
+import java.time.Instant;
+
+/**
+ * A DTO representing the number of audit events of a principal and event type during one hour.
+ */
+public class AuditEventStatsDTO {
+
+    private Instant bucketStart;
+
+    private String principal;
+
+    private String type;
+
+    private long count;
+
+    public AuditEventStatsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public AuditEventStatsDTO(PersistentAuditEventRollup rollup) {
+        this.bucketStart = rollup.getBucketStart();
+        this.principal = rollup.getPrincipal();
+        this.type = rollup.getAuditEventType();
+        this.count = rollup.getEventCount();
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public void setPrincipal(String principal) {
+        this.principal = principal;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditEventStatsDTO{" +
+            "bucketStart=" + bucketStart +
+            ", principal='" + principal + '\'' +
+            ", type='" + type + '\'' +
+            ", count=" + count +
+            '}';
+    }
+}
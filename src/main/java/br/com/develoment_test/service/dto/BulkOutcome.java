@@ -0,0 +1,8 @@
+package br.com.develoment_test.service.dto;
+
+/**
+ * The outcome of a bulk operation for one user.
+ */
+public enum BulkOutcome {
+    UPDATED, DELETED, UNCHANGED, NOT_FOUND
+}
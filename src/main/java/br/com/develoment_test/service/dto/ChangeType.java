@@ -0,0 +1,8 @@
+package br.com.develoment_test.service.dto;
+
+/**
+ * The kind of change notified to the GraphQL subscriptions.
+ */
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
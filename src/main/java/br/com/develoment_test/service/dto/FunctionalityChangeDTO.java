@@ -0,0 +1,46 @@
+package br.com.develoment_test.service.dto;
+
+import br.com.develoment_test.domain.Functionality;
+
+/**
+ * A DTO representing a committed change of a {@link Functionality}.
+ */
+public class FunctionalityChangeDTO {
+
+    private final ChangeType type;
+
+    private final Long id;
+
+    private final Functionality functionality;
+
+    /**
+     * @param type the kind of change.
+     * @param id the id of the functionality.
+     * @param functionality a detached copy of the functionality, {@code null} when it was deleted.
+     */
+    public FunctionalityChangeDTO(ChangeType type, Long id, Functionality functionality) {
+        this.type = type;
+        this.id = id;
+        this.functionality = functionality;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Functionality getFunctionality() {
+        return functionality;
+    }
+
+    @Override
+    public String toString() {
+        return "FunctionalityChangeDTO{" +
+            "type=" + type +
+            ", id=" + id +
+            "}";
+    }
+}
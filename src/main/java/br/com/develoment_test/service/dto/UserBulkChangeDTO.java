@@ -0,0 +1,27 @@
+package br.com.develoment_test.service.dto;
+
+import java.util.List;
+
+/**
+ * A DTO representing the committed changes of several {@link br.com.develoment_test.domain.User}s by one bulk
+ * operation, published as one event so that caches are evicted once.
+ */
+public class UserBulkChangeDTO {
+
+    private final List<UserChangeDTO> changes;
+
+    public UserBulkChangeDTO(List<UserChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    public List<UserChangeDTO> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "UserBulkChangeDTO{" +
+            "changes=" + changes.size() +
+            "}";
+    }
+}
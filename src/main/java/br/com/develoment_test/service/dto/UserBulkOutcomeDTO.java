@@ -0,0 +1,32 @@
+package br.com.develoment_test.service.dto;
+
+/**
+ * A DTO representing the outcome of a bulk operation for one {@link br.com.develoment_test.domain.User}.
+ */
+public class UserBulkOutcomeDTO {
+
+    private final String login;
+
+    private final BulkOutcome outcome;
+
+    public UserBulkOutcomeDTO(String login, BulkOutcome outcome) {
+        this.login = login;
+        this.outcome = outcome;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public BulkOutcome getOutcome() {
+        return outcome;
+    }
+
+    @Override
+    public String toString() {
+        return "UserBulkOutcomeDTO{" +
+            "login='" + login + "'" +
+            ", outcome=" + outcome +
+            "}";
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.develoment_test.service.dto;
+
+/**
+ * A DTO representing a committed change of a {@link br.com.develoment_test.domain.User}.
+ */
+public class UserChangeDTO {
+
+    private final ChangeType type;
+
+    private final String login;
+
+    private final UserDTO user;
+
+    /**
+     * @param type the kind of change.
+     * @param login the login of the user.
+     * @param user the user, {@code null} when it was deleted.
+     */
+    public UserChangeDTO(ChangeType type, String login, UserDTO user) {
+        this.type = type;
+        this.login = login;
+        this.user = user;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public UserDTO getUser() {
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangeDTO{" +
+            "type=" + type +
+            ", login='" + login + "'" +
+            "}";
+    }
+}
@@ -46,6 +46,14 @@ public class UserDTO {
     }
 
     public UserDTO(User user) {
+        this(user, true);
+    }
+
+    /**
+     * @param user the user.
+     * @param withAuthorities whether to copy the authorities, which must then be loaded.
+     */
+    public UserDTO(User user, boolean withAuthorities) {
         this.id = user.getId();
         this.login = user.getLogin();
         this.email = user.getEmail();
@@ -55,9 +63,11 @@ public class UserDTO {
         this.createdDate = user.getCreatedDate();
         this.lastModifiedBy = user.getLastModifiedBy();
         this.lastModifiedDate = user.getLastModifiedDate();
-        this.authorities = user.getAuthorities().stream()
-            .map(Authority::getName)
-            .collect(Collectors.toSet());
+        if (withAuthorities) {
+            this.authorities = user.getAuthorities().stream()
+                .map(Authority::getName)
+                .collect(Collectors.toSet());
+        }
     }
 
     public Long getId() {
@@ -5,18 +5,18 @@ import br.com.develoment_test.domain.User;
 import br.com.develoment_test.repository.UserRepository;
 import br.com.develoment_test.security.AuthoritiesConstants;
 import br.com.develoment_test.security.SecurityUtils;
+import br.com.develoment_test.service.EmailAlreadyUsedException;
+import br.com.develoment_test.service.InvalidPasswordException;
 import br.com.develoment_test.service.MailService;
 import br.com.develoment_test.service.UserService;
 import br.com.develoment_test.service.dto.PasswordChangeDTO;
 import br.com.develoment_test.service.dto.UserDTO;
-import br.com.develoment_test.web.rest.errors.EmailAlreadyUsedException;
 import br.com.develoment_test.web.rest.errors.EmailNotFoundException;
-import br.com.develoment_test.web.rest.errors.InvalidPasswordException;
-import br.com.develoment_test.web.rest.errors.LoginAlreadyUsedException;
 import br.com.develoment_test.web.rest.vm.KeyAndPasswordVM;
 import br.com.develoment_test.web.rest.vm.ManagedUserVM;
 import com.coxautodev.graphql.tools.GraphQLMutationResolver;
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
+import graphql.schema.DataFetchingEnvironment;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,7 +61,7 @@ public class AccountResource implements GraphQLQueryResolver, GraphQLMutationRes
      * @param managedUserVM the managed user View Model.
      * @throws InvalidPasswordException {@code 400 (Bad Request)} if the password is incorrect.
      * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already used.
-     * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if the login is already used.
+     * @throws br.com.develoment_test.service.UsernameAlreadyUsedException {@code 400 (Bad Request)} if the login is already used.
      */
     @PreAuthorize("@functionalityRepository." +
         "getByNameAndAuthority_Name(\"registerAccount\", \"" + AuthoritiesConstants.ANONYMOUS + "\") != null")
@@ -69,7 +69,7 @@ public class AccountResource implements GraphQLQueryResolver, GraphQLMutationRes
     public User registerAccount(@Valid ManagedUserVM managedUserVM) {
         System.out.println();
         if (!checkPasswordLength(managedUserVM.getPassword())) {
-            throw new InvalidPasswordException();
+            throw InvalidPasswordException.INSTANCE;
         }
         return userService.registerUser(managedUserVM, managedUserVM.getPassword());
 //        mailService.sendActivationEmail(user);
@@ -103,16 +103,19 @@ public class AccountResource implements GraphQLQueryResolver, GraphQLMutationRes
     }
 
     /**
-     * {@code GraphQL } : get the current user.
+     * {@code GraphQL } : get the current user, joining the authorities only when the query selects them.
      *
+     * @param environment the environment of the field.
      * @return the current user.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
      */
     @PreAuthorize("@functionalityRepository." +
         "getByNameAndAuthority_Name(\"getAccount\", \"" + AuthoritiesConstants.USER + "\") != null")
-    public UserDTO getAccount() {
-        return userService.getUserWithAuthorities()
-            .map(UserDTO::new)
+    public UserDTO getAccount(DataFetchingEnvironment environment) {
+        boolean withAuthorities = environment.getSelectionSet().contains("authorities");
+        return SecurityUtils.getCurrentUserLogin()
+            .flatMap(login -> userService.getUserByLogin(login, withAuthorities))
+            .map(user -> new UserDTO(user, withAuthorities))
             .orElseThrow(() -> new AccountResourceException("User could not be found"));
     }
 
@@ -129,7 +132,7 @@ public class AccountResource implements GraphQLQueryResolver, GraphQLMutationRes
         String userLogin = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new AccountResourceException("Current user login not found"));
         Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
         if (existingUser.isPresent() && (!existingUser.get().getLogin().equalsIgnoreCase(userLogin))) {
-            throw new EmailAlreadyUsedException();
+            throw EmailAlreadyUsedException.INSTANCE;
         }
         Optional<User> user = userRepository.findOneByLogin(userLogin);
         if (!user.isPresent()) {
@@ -150,7 +153,7 @@ public class AccountResource implements GraphQLQueryResolver, GraphQLMutationRes
         "getByNameAndAuthority_Name(\"changePassword\", \"" + AuthoritiesConstants.ANONYMOUS + "\") != null")
     public boolean changePassword(PasswordChangeDTO passwordChangeDto) {
         if (!checkPasswordLength(passwordChangeDto.getNewPassword())) {
-            throw new InvalidPasswordException();
+            throw InvalidPasswordException.INSTANCE;
         }
         userService.changePassword(passwordChangeDto.getCurrentPassword(), passwordChangeDto.getNewPassword());
         return true;
@@ -165,10 +168,8 @@ public class AccountResource implements GraphQLQueryResolver, GraphQLMutationRes
 //    @PreAuthorize("@functionalityRepository." +
 //        "getByNameAndAuthority_Name(\"requestPasswordReset\", \"" + AuthoritiesConstants.ADMIN + "\") != null")
     public String requestPasswordReset(String mail) {
-       mailService.sendPasswordResetMail(
-           userService.requestPasswordReset(mail)
-               .orElseThrow(EmailNotFoundException::new)
-       );
+       userService.requestPasswordReset(mail)
+           .orElseThrow(EmailNotFoundException::new);
        return "Requisição de reset de senha realizada!";
     }
 
@@ -183,7 +184,7 @@ public class AccountResource implements GraphQLQueryResolver, GraphQLMutationRes
         "getByNameAndAuthority_Name(\"finishPasswordReset\", \"" + AuthoritiesConstants.ANONYMOUS + "\") != null")
     public String finishPasswordReset(KeyAndPasswordVM keyAndPassword) {
         if (!checkPasswordLength(keyAndPassword.getNewPassword())) {
-            throw new InvalidPasswordException();
+            throw InvalidPasswordException.INSTANCE;
         }
         Optional<User> user =
             userService.completePasswordReset(keyAndPassword.getNewPassword(), keyAndPassword.getKey());
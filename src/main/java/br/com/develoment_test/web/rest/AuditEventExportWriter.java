@@ -0,0 +1,139 @@
+package br.com.develoment_test.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.actuate.audit.AuditEvent;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Writes {@link AuditEvent}s one at a time to an output stream, flushing regularly so that
+ * the client receives the export progressively and a disconnection is detected early.
+ */
+abstract class AuditEventExportWriter implements Closeable {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private long written;
+
+    /**
+     * Create the writer of the given format.
+     *
+     * @param format {@code ndjson} or {@code csv}.
+     * @param objectMapper the mapper used for JSON output.
+     * @param out the stream to write to, it is not closed by the writer.
+     * @return the writer.
+     * @throws IOException if the stream could not be written.
+     * @throws IllegalArgumentException if the format is not supported.
+     */
+    static AuditEventExportWriter of(String format, ObjectMapper objectMapper, OutputStream out) throws IOException {
+        switch (format) {
+            case "ndjson":
+                return new NdjsonWriter(objectMapper, out);
+            case "csv":
+                return new CsvWriter(out);
+            default:
+                throw new IllegalArgumentException("Unsupported audit export format: " + format);
+        }
+    }
+
+    static boolean isSupported(String format) {
+        return "ndjson".equals(format) || "csv".equals(format);
+    }
+
+    static String contentType(String format) {
+        return "csv".equals(format) ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8";
+    }
+
+    void write(AuditEvent event) throws IOException {
+        doWrite(event);
+        if (++written % FLUSH_INTERVAL == 0) {
+            flush();
+        }
+    }
+
+    abstract void doWrite(AuditEvent event) throws IOException;
+
+    abstract void flush() throws IOException;
+
+    private static final class NdjsonWriter extends AuditEventExportWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setCodec(objectMapper);
+            this.generator.setPrettyPrinter(null);
+        }
+
+        @Override
+        void doWrite(AuditEvent event) throws IOException {
+            generator.writeObject(event);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter extends AuditEventExportWriter {
+
+        private final Writer writer;
+
+        private CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.writer.write("timestamp,principal,type,data\n");
+        }
+
+        @Override
+        void doWrite(AuditEvent event) throws IOException {
+            writer.write(event.getTimestamp().toString());
+            writer.write(',');
+            writeQuoted(event.getPrincipal());
+            writer.write(',');
+            writeQuoted(event.getType());
+            writer.write(',');
+            StringBuilder data = new StringBuilder();
+            for (Map.Entry<String, Object> entry : event.getData().entrySet()) {
+                if (data.length() > 0) {
+                    data.append(';');
+                }
+                data.append(entry.getKey()).append('=').append(entry.getValue());
+            }
+            writeQuoted(data.toString());
+            writer.write('\n');
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            writer.write('"');
+            writer.write(value == null ? "" : value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Flush only, the underlying stream belongs to the caller.
+            writer.flush();
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package br.com.develoment_test.web.rest;
 
 import br.com.develoment_test.service.AuditEventService;
+import br.com.develoment_test.service.dto.AuditEventStatsDTO;
+import br.com.develoment_test.web.rest.errors.BadRequestAlertException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,10 +18,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for getting the {@link AuditEvent}s.
@@ -25,10 +35,15 @@ import java.util.List;
 @RequestMapping("/management/audits")
 public class AuditResource {
 
+    private final Logger log = LoggerFactory.getLogger(AuditResource.class);
+
     private final AuditEventService auditEventService;
 
-    public AuditResource(AuditEventService auditEventService) {
+    private final ObjectMapper objectMapper;
+
+    public AuditResource(AuditEventService auditEventService, ObjectMapper objectMapper) {
         this.auditEventService = auditEventService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -66,6 +81,80 @@ public class AuditResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET  /audits/export} : stream all the {@link AuditEvent}s between the {@code fromDate} and {@code toDate}.
+     * <p>
+     * The events are written as they are read from the database, gzip-compressed when the client accepts it.
+     * The export stops as soon as the client disconnects.
+     *
+     * @param fromDate the start of the time period of {@link AuditEvent} to export.
+     * @param toDate the end of the time period of {@link AuditEvent} to export.
+     * @param format the output format, {@code ndjson} (default) or {@code csv}.
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request.
+     * @param response the HTTP response to write the events to.
+     * @throws IOException if the response could not be written.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping(value = "/export", params = {"fromDate", "toDate"})
+    public void export(
+        @RequestParam(value = "fromDate") LocalDate fromDate,
+        @RequestParam(value = "toDate") LocalDate toDate,
+        @RequestParam(value = "format", defaultValue = "ndjson") String format,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        HttpServletResponse response) throws IOException {
+
+        if (!AuditEventExportWriter.isSupported(format)) {
+            throw new BadRequestAlertException("Unsupported export format", "audit", "exportformat");
+        }
+        Instant from = fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant to = toDate.atStartOfDay(ZoneId.systemDefault()).plusDays(1).toInstant();
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        response.setContentType(AuditEventExportWriter.contentType(format));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audits-" + fromDate + "-" + toDate + "." + format + "\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        try (AuditEventExportWriter writer = AuditEventExportWriter.of(format, objectMapper, out)) {
+            long count = auditEventService.exportByDates(from, to, event -> {
+                try {
+                    writer.write(event);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("Exported {} audit events between {} and {}", count, from, to);
+        } catch (UncheckedIOException e) {
+            log.debug("Audit export between {} and {} cancelled: {}", from, to, e.getCause().getMessage());
+            return;
+        }
+        out.close();
+    }
+
+    /**
+     * {@code GET  /audits/stats} : get the hourly counts of {@link AuditEvent}s per principal and type
+     * between the {@code fromDate} and {@code toDate}.
+     *
+     * @param fromDate the start of the time period of the counts to get.
+     * @param toDate the end of the time period of the counts to get.
+     * @param principal the optional principal to filter on.
+     * @param type the optional event type to filter on.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of counts in body.
+     */
+    @GetMapping(value = "/stats", params = {"fromDate", "toDate"})
+    public ResponseEntity<List<AuditEventStatsDTO>> getStats(
+        @RequestParam(value = "fromDate") LocalDate fromDate,
+        @RequestParam(value = "toDate") LocalDate toDate,
+        @RequestParam(value = "principal", required = false) String principal,
+        @RequestParam(value = "type", required = false) String type) {
+
+        Instant from = fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant to = toDate.atStartOfDay(ZoneId.systemDefault()).plusDays(1).toInstant();
+
+        return ResponseEntity.ok(auditEventService.findStats(from, to, principal, type));
+    }
+
     /**
      * {@code GET  /audits/:id} : get an {@link AuditEvent} by id.
      *
@@ -0,0 +1,40 @@
+package br.com.develoment_test.web.rest;
+
+import br.com.develoment_test.config.graphql.GraphQLDataLoaders;
+import br.com.develoment_test.domain.Authority;
+import br.com.develoment_test.domain.Functionality;
+import com.coxautodev.graphql.tools.GraphQLResolver;
+import graphql.schema.DataFetchingEnvironment;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * GraphQL resolver of the relationship fields of {@link Functionality}.
+ */
+@Component
+public class FunctionalityFieldResolver implements GraphQLResolver<Functionality> {
+
+    /**
+     * {@code GraphQL Functionality.authority} : load the authority of a functionality, batched with the other
+     * functionalities of the query. Nothing is loaded when only the name, which is the key of the authority, is
+     * selected.
+     *
+     * @param functionality the functionality.
+     * @param environment the environment of the field.
+     */
+    public CompletableFuture<Authority> authority(Functionality functionality, DataFetchingEnvironment environment) {
+        Authority authority = functionality.getAuthority();
+        if (!(authority instanceof HibernateProxy)) {
+            // Already loaded, or a detached copy
+            return CompletableFuture.completedFuture(authority);
+        }
+        // Read the name from the proxy without initializing it
+        String name = (String) ((HibernateProxy) authority).getHibernateLazyInitializer().getIdentifier();
+        if (environment.getSelectionSet().get().keySet().stream().allMatch(field -> field.equals("name") || field.startsWith("__"))) {
+            return CompletableFuture.completedFuture(new Authority(name));
+        }
+        return GraphQLDataLoaders.<String, Authority>get(environment, GraphQLDataLoaders.AUTHORITY_BY_NAME).load(name);
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.develoment_test.web.rest;
+
+import br.com.develoment_test.domain.ScheduledLock;
+import br.com.develoment_test.service.ScheduledLockService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller for getting the {@link ScheduledLock}s of the scheduled jobs.
+ */
+@RestController
+@RequestMapping("/management/scheduled-jobs")
+public class ScheduledLockResource {
+
+    private final ScheduledLockService scheduledLockService;
+
+    public ScheduledLockResource(ScheduledLockService scheduledLockService) {
+        this.scheduledLockService = scheduledLockService;
+    }
+
+    /**
+     * {@code GET /scheduled-jobs} : get the lock of each scheduled job, with its last run, duration and owner.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of {@link ScheduledLock}s in body.
+     */
+    @GetMapping
+    public ResponseEntity<List<ScheduledLock>> getAll() {
+        return ResponseEntity.ok(scheduledLockService.findAll());
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.develoment_test.web.rest;
+
+import br.com.develoment_test.config.graphql.ChangeBroadcasters;
+import br.com.develoment_test.security.AuthoritiesConstants;
+import br.com.develoment_test.security.jwt.JWTFilter;
+import br.com.develoment_test.security.jwt.TokenProvider;
+import br.com.develoment_test.service.dto.FunctionalityChangeDTO;
+import br.com.develoment_test.service.dto.UserChangeDTO;
+import com.coxautodev.graphql.tools.GraphQLSubscriptionResolver;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.servlet.GraphQLContext;
+import org.reactivestreams.Publisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.websocket.server.HandshakeRequest;
+import java.util.List;
+
+/**
+ * GraphQL subscriptions to the changes of functionalities and users, served over WebSocket with the
+ * {@code graphql-ws} protocol on {@code /subscriptions}.
+ * <p>
+ * Browsers cannot set headers on a WebSocket handshake, so the JWT token can be given either in the
+ * {@code Authorization} header or in the {@code access_token} parameter of the handshake.
+ */
+@Component
+public class SubscriptionResource implements GraphQLSubscriptionResolver {
+
+    private static final String ACCESS_TOKEN_PARAMETER = "access_token";
+
+    private final ChangeBroadcasters changeBroadcasters;
+
+    private final TokenProvider tokenProvider;
+
+    public SubscriptionResource(ChangeBroadcasters changeBroadcasters, TokenProvider tokenProvider) {
+        this.changeBroadcasters = changeBroadcasters;
+        this.tokenProvider = tokenProvider;
+    }
+
+    /**
+     * {@code GraphQL functionalityChanged} : the committed changes of functionalities - PERFIL DE ADMIN.
+     */
+    public Publisher<FunctionalityChangeDTO> functionalityChanged(DataFetchingEnvironment environment) {
+        checkAdmin(environment);
+        return changeBroadcasters.getFunctionalityChanges();
+    }
+
+    /**
+     * {@code GraphQL userChanged} : the committed changes of users - PERFIL DE ADMIN.
+     */
+    public Publisher<UserChangeDTO> userChanged(DataFetchingEnvironment environment) {
+        checkAdmin(environment);
+        return changeBroadcasters.getUserChanges();
+    }
+
+    private void checkAdmin(DataFetchingEnvironment environment) {
+        String token = null;
+        Object context = environment.getContext();
+        if (context instanceof GraphQLContext) {
+            token = ((GraphQLContext) context).getHandshakeRequest().map(this::resolveToken).orElse(null);
+        }
+        if (!StringUtils.hasText(token) || !tokenProvider.validateToken(token)) {
+            throw new AccessDeniedException("A valid token is required to subscribe");
+        }
+        Authentication authentication = tokenProvider.getAuthentication(token);
+        boolean admin = authentication.getAuthorities().stream()
+            .anyMatch(authority -> AuthoritiesConstants.ADMIN.equals(authority.getAuthority()));
+        if (!admin) {
+            throw new AccessDeniedException("Subscriptions are reserved to administrators");
+        }
+    }
+
+    private String resolveToken(HandshakeRequest request) {
+        List<String> headers = request.getHeaders().get(JWTFilter.AUTHORIZATION_HEADER);
+        if (headers != null && !headers.isEmpty() && headers.get(0).startsWith("Bearer ")) {
+            return headers.get(0).substring(7);
+        }
+        List<String> parameters = request.getParameterMap().get(ACCESS_TOKEN_PARAMETER);
+        return parameters == null || parameters.isEmpty() ? null : parameters.get(0);
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.develoment_test.web.rest;
+
+import br.com.develoment_test.config.graphql.GraphQLDataLoaders;
+import br.com.develoment_test.domain.Authority;
+import br.com.develoment_test.domain.User;
+import com.coxautodev.graphql.tools.GraphQLResolver;
+import graphql.schema.DataFetchingEnvironment;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * GraphQL resolver of the relationship fields of {@link User}.
+ */
+@Component
+public class UserFieldResolver implements GraphQLResolver<User> {
+
+    /**
+     * {@code GraphQL User.authorities} : load the authorities of a user, batched with the other users of the query,
+     * unless they were already loaded with the user.
+     *
+     * @param user the user.
+     * @param environment the environment of the field.
+     */
+    public CompletableFuture<List<Authority>> authorities(User user, DataFetchingEnvironment environment) {
+        if (user.getId() == null || Hibernate.isInitialized(user.getAuthorities())) {
+            return CompletableFuture.completedFuture(new ArrayList<>(user.getAuthorities()));
+        }
+        return GraphQLDataLoaders.<Long, List<Authority>>get(environment, GraphQLDataLoaders.AUTHORITIES_BY_USER_ID).load(user.getId());
+    }
+}
@@ -3,15 +3,17 @@ package br.com.develoment_test.web.rest;
 import br.com.develoment_test.domain.User;
 import br.com.develoment_test.repository.UserRepository;
 import br.com.develoment_test.security.AuthoritiesConstants;
+import br.com.develoment_test.service.EmailAlreadyUsedException;
 import br.com.develoment_test.service.MailService;
 import br.com.develoment_test.service.UserService;
 import br.com.develoment_test.service.UserWithLoginNotExists;
+import br.com.develoment_test.service.UsernameAlreadyUsedException;
+import br.com.develoment_test.service.dto.UserBulkOutcomeDTO;
 import br.com.develoment_test.service.dto.UserDTO;
 import br.com.develoment_test.web.rest.errors.BadRequestAlertException;
-import br.com.develoment_test.web.rest.errors.EmailAlreadyUsedException;
-import br.com.develoment_test.web.rest.errors.LoginAlreadyUsedException;
 import com.coxautodev.graphql.tools.GraphQLMutationResolver;
 import com.coxautodev.graphql.tools.GraphQLQueryResolver;
+import graphql.schema.DataFetchingEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -75,12 +77,49 @@ public class UserResource implements GraphQLMutationResolver, GraphQLQueryResolv
         "getByNameAndAuthority_Name(\"upgradeAuthUser\", \"" + AuthoritiesConstants.ADMIN + "\") != null && hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
     public User upgradeAuthUser(String login) {
         if(!userRepository.findOneByLogin(login).isPresent()) {
-            throw new UserWithLoginNotExists();
+            throw UserWithLoginNotExists.INSTANCE;
         } else {
             return userService.upgradeAuthoritiesUser(login);
         }
     }
 
+    /**
+     * {@code GraphQL upgradeAuthUsers} : give the admin authority to several users at once.
+     *
+     * @param logins the logins of the users.
+     * @return the outcome for each login.
+     */
+    @PreAuthorize("@functionalityRepository." +
+        "getByNameAndAuthority_Name(\"upgradeAuthUser\", \"" + AuthoritiesConstants.ADMIN + "\") != null && hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public List<UserBulkOutcomeDTO> upgradeAuthUsers(List<String> logins) {
+        return userService.upgradeAuthoritiesUsers(logins);
+    }
+
+    /**
+     * {@code GraphQL deleteUsers} : delete several users at once.
+     *
+     * @param logins the logins of the users.
+     * @return the outcome for each login.
+     */
+    @PreAuthorize("@functionalityRepository." +
+        "getByNameAndAuthority_Name(\"deleteUser\", \"" + AuthoritiesConstants.ADMIN + "\") != null && hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public List<UserBulkOutcomeDTO> deleteUsers(List<String> logins) {
+        return userService.deleteUsers(logins);
+    }
+
+    /**
+     * {@code GraphQL setActivated} : activate or deactivate several users at once.
+     *
+     * @param logins the logins of the users.
+     * @param activated whether the users are activated.
+     * @return the outcome for each login.
+     */
+    @PreAuthorize("@functionalityRepository." +
+        "getByNameAndAuthority_Name(\"updateUser\", \"" + AuthoritiesConstants.ADMIN + "\") != null && hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public List<UserBulkOutcomeDTO> setActivated(List<String> logins, Boolean activated) {
+        return userService.setActivated(logins, activated);
+    }
+
     /**
      * {@code CREATE }  : Creates a new user.
      * <p>
@@ -101,9 +140,9 @@ public class UserResource implements GraphQLMutationResolver, GraphQLQueryResolv
             throw new BadRequestAlertException("A new user cannot already have an ID", "userManagement", "idexists");
             // Lowercase the user login before comparing with database
         } else if (userRepository.findOneByLogin(userDTO.getLogin().toLowerCase()).isPresent()) {
-            throw new LoginAlreadyUsedException();
+            throw UsernameAlreadyUsedException.INSTANCE;
         } else if (userRepository.findOneByEmailIgnoreCase(userDTO.getEmail()).isPresent()) {
-            throw new EmailAlreadyUsedException();
+            throw EmailAlreadyUsedException.INSTANCE;
         } else {
             return userService.createUser(userDTO);
         }
@@ -115,18 +154,18 @@ public class UserResource implements GraphQLMutationResolver, GraphQLQueryResolv
      * @param userDTO the user to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated user.
      * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already in use.
-     * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if the login is already in use.
+     * @throws UsernameAlreadyUsedException {@code 400 (Bad Request)} if the login is already in use.
      */
     @PreAuthorize("@functionalityRepository." +
         "getByNameAndAuthority_Name(\"updateUser\", \"" + AuthoritiesConstants.ADMIN + "\") != null && hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
     public Optional<UserDTO> updateUser(@Valid UserDTO userDTO) {
         Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
         if (existingUser.isPresent() && (!existingUser.get().getId().equals(userDTO.getId()))) {
-            throw new EmailAlreadyUsedException();
+            throw EmailAlreadyUsedException.INSTANCE;
         }
         existingUser = userRepository.findOneByLogin(userDTO.getLogin().toLowerCase());
         if (existingUser.isPresent() && (!existingUser.get().getId().equals(userDTO.getId()))) {
-            throw new LoginAlreadyUsedException();
+            throw UsernameAlreadyUsedException.INSTANCE;
         }
         return userService.updateUser(userDTO);
     }
@@ -156,14 +195,18 @@ public class UserResource implements GraphQLMutationResolver, GraphQLQueryResolv
     /**
      * {@code GET /users/:login} : get the "login" user.
      *
+     * The authorities are only joined when the query selects them.
+     *
      * @param login the login of the user to find.
+     * @param environment the environment of the field.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the "login" user, or with status {@code 404 (Not Found)}.
      */
     @PreAuthorize("@functionalityRepository." +
         "getByNameAndAuthority_Name(\"getUser\", \"" + AuthoritiesConstants.ADMIN + "\") != null && hasRole(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public Optional<UserDTO> getUser(String login) {
-        return userService.getUserWithAuthoritiesByLogin(login)
-                .map(UserDTO::new);
+    public Optional<UserDTO> getUser(String login, DataFetchingEnvironment environment) {
+        boolean withAuthorities = environment.getSelectionSet().contains("authorities");
+        return userService.getUserByLogin(login, withAuthorities)
+                .map(user -> new UserDTO(user, withAuthorities));
     }
 
     /**
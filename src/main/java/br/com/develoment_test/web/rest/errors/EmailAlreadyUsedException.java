@@ -1,10 +0,0 @@
-package br.com.develoment_test.web.rest.errors;
-
-public class EmailAlreadyUsedException extends BadRequestAlertException {
-
-    private static final long serialVersionUID = 1L;
-
-    public EmailAlreadyUsedException() {
-        super(ErrorConstants.EMAIL_ALREADY_USED_TYPE, "Email is already in use!", "userManagement", "emailexists");
-    }
-}
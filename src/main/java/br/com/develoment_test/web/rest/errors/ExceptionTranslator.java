@@ -1,5 +1,9 @@
 package br.com.develoment_test.web.rest.errors;
 
+import br.com.develoment_test.service.EmailAlreadyUsedException;
+import br.com.develoment_test.service.InvalidPasswordException;
+import br.com.develoment_test.service.UsernameAlreadyUsedException;
+
 import io.github.jhipster.web.util.HeaderUtil;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -92,20 +96,27 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
     }
 
     @ExceptionHandler
-    public ResponseEntity<Problem> handleEmailAlreadyUsedException(br.com.develoment_test.service.EmailAlreadyUsedException ex, NativeWebRequest request) {
-        EmailAlreadyUsedException problem = new EmailAlreadyUsedException();
+    public ResponseEntity<Problem> handleEmailAlreadyUsedException(EmailAlreadyUsedException ex, NativeWebRequest request) {
+        BadRequestAlertException problem = new BadRequestAlertException(ErrorConstants.EMAIL_ALREADY_USED_TYPE,
+            "Email is already in use!", "userManagement", "emailexists");
         return create(problem, request, HeaderUtil.createFailureAlert(applicationName,  false, problem.getEntityName(), problem.getErrorKey(), problem.getMessage()));
     }
 
     @ExceptionHandler
-    public ResponseEntity<Problem> handleUsernameAlreadyUsedException(br.com.develoment_test.service.UsernameAlreadyUsedException ex, NativeWebRequest request) {
-        LoginAlreadyUsedException problem = new LoginAlreadyUsedException();
+    public ResponseEntity<Problem> handleUsernameAlreadyUsedException(UsernameAlreadyUsedException ex, NativeWebRequest request) {
+        BadRequestAlertException problem = new BadRequestAlertException(ErrorConstants.LOGIN_ALREADY_USED_TYPE,
+            "Login name already used!", "userManagement", "userexists");
         return create(problem, request, HeaderUtil.createFailureAlert(applicationName,  false, problem.getEntityName(), problem.getErrorKey(), problem.getMessage()));
     }
 
     @ExceptionHandler
-    public ResponseEntity<Problem> handleInvalidPasswordException(br.com.develoment_test.service.InvalidPasswordException ex, NativeWebRequest request) {
-        return create(new InvalidPasswordException(), request);
+    public ResponseEntity<Problem> handleInvalidPasswordException(InvalidPasswordException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withType(ErrorConstants.INVALID_PASSWORD_TYPE)
+            .withTitle("Incorrect password")
+            .withStatus(Status.BAD_REQUEST)
+            .build();
+        return create(ex, problem, request);
     }
 
     @ExceptionHandler
@@ -0,0 +1,41 @@
+package br.com.develoment_test.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Records the SQL statements prepared by Hibernate, for the tests asserting how many statements an operation runs.
+ * <p>
+ * Registered in the test configuration. The statements are counted by table, so that the scheduled jobs running
+ * meanwhile on other tables are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    /**
+     * Forget the statements recorded so far.
+     */
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * @param tables the names of the tables.
+     * @return the number of statements recorded since the last {@link #clear()} using any of the tables.
+     */
+    public static long count(String... tables) {
+        Pattern pattern = Pattern.compile("\\b(" + String.join("|", Arrays.asList(tables)) + ")\\b", Pattern.CASE_INSENSITIVE);
+        return STATEMENTS.stream().filter(sql -> pattern.matcher(sql).find()).count();
+    }
+}
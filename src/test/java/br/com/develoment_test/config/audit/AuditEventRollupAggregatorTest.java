@@ -0,0 +1,78 @@
+package br.com.develoment_test.config.audit;
+
+import br.com.develoment_test.repository.PersistenceAuditEventRollupRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link AuditEventRollupAggregator}.
+ */
+public class AuditEventRollupAggregatorTest {
+
+    private static final int THREADS = 4;
+
+    private static final int EVENTS_PER_THREAD = 100_000;
+
+    private final AtomicLong flushed = new AtomicLong();
+
+    private ExecutorService executor;
+
+    private AuditEventRollupAggregator aggregator;
+
+    @BeforeEach
+    public void init() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        PersistenceAuditEventRollupRepository rollupRepository = mock(PersistenceAuditEventRollupRepository.class);
+        when(rollupRepository.incrementEventCount(anyString(), anyString(), any(), anyLong())).thenAnswer(invocation -> {
+            flushed.addAndGet(invocation.getArgument(3));
+            return 1;
+        });
+        aggregator = new AuditEventRollupAggregator(rollupRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void assertThatEventsRecordedDuringFlushesAreNotLost() throws Exception {
+        Instant lastHour = Instant.now().minus(1, ChronoUnit.HOURS);
+        List<Future<?>> recorders = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            recorders.add(executor.submit(() -> {
+                for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                    aggregator.record("user", "AUTHENTICATION_SUCCESS", j % 2 == 0 ? lastHour : Instant.now());
+                }
+            }));
+        }
+        while (recorders.stream().anyMatch(recorder -> !recorder.isDone())) {
+            aggregator.flush();
+        }
+        for (Future<?> recorder : recorders) {
+            recorder.get();
+        }
+        aggregator.flush();
+
+        assertThat(flushed.get()).isEqualTo((long) THREADS * EVENTS_PER_THREAD);
+    }
+}
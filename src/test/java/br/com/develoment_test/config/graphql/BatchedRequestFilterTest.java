@@ -0,0 +1,135 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link BatchedRequestFilter}.
+ */
+public class BatchedRequestFilterTest {
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    private final List<String> started = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger runningMutations = new AtomicInteger();
+
+    private final AtomicInteger maxRunningMutations = new AtomicInteger();
+
+    private ExecutorService executor;
+
+    private BatchedRequestFilter filter;
+
+    @BeforeEach
+    public void init() {
+        executor = Executors.newFixedThreadPool(4);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getGraphql().getBatch().setTimeoutSeconds(1);
+        filter = new BatchedRequestFilter(new ObjectMapper(), EchoServlet::new, executor, applicationProperties,
+            new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void destroy() {
+        unblock.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void assertThatSlowOperationTimesOutAlone() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContent("[{\"query\":\"fast\"},{\"query\":\"slow\"}]".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long start = System.nanoTime();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(System.nanoTime() - start).isLessThan(5_000_000_000L);
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsString()).isEqualTo("[{\"data\":\"fast\"}," +
+            "{\"errors\":[{\"message\":\"Operation timed out after 1 seconds\"}]}]");
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void assertThatMutationsAreExecutedInOrder() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContent(("[{\"query\":\"mutation first { a }\"},{\"query\":\"{ b }\"}," +
+            "{\"query\":\"mutation second { c }\"},{\"query\":\"mutation third { d }\"}]").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getContentAsString()).isEqualTo("[{\"data\":\"mutation first { a }\"},{\"data\":\"{ b }\"}," +
+            "{\"data\":\"mutation second { c }\"},{\"data\":\"mutation third { d }\"}]");
+        assertThat(started).filteredOn(query -> query.startsWith("mutation"))
+            .containsExactly("mutation first { a }", "mutation second { c }", "mutation third { d }");
+        assertThat(maxRunningMutations).hasValue(1);
+    }
+
+    @Test
+    public void assertThatOperationsGetACopyOfTheRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.addHeader("X-Operation", "copied");
+        request.setAttribute("batch", "attribute");
+        request.setContent("[{\"query\":\"header\"},{\"query\":\"header\"}]".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getContentAsString()).isEqualTo("[{\"data\":\"copied attribute\"},{\"data\":\"copied attribute\"}]");
+    }
+
+    private class EchoServlet extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            assertThat(request).isInstanceOf(DetachedRequest.class);
+            String body = IOUtils.toString(request.getInputStream(), StandardCharsets.UTF_8);
+            String query = new ObjectMapper().readTree(body).path("query").asText();
+            started.add(query);
+            try {
+                if (query.equals("slow")) {
+                    unblock.await();
+                } else if (query.startsWith("mutation")) {
+                    maxRunningMutations.accumulateAndGet(runningMutations.incrementAndGet(), Math::max);
+                    Thread.sleep(100);
+                    runningMutations.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            if (query.equals("header")) {
+                query = request.getHeader("X-Operation") + " " + request.getAttribute("batch");
+            }
+            response.getOutputStream().write(("{\"data\":\"" + query + "\"}").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.develoment_test.config.graphql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.servlet.GraphQLInvocationInputFactory;
+import graphql.servlet.GraphQLObjectMapper;
+import graphql.servlet.GraphQLQueryInvoker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link BinaryFormatsFilter}.
+ */
+public class BinaryFormatsFilterTest {
+
+    private static final String QUERY = "{ name }";
+
+    private BinaryFormatsFilter filter;
+
+    @BeforeEach
+    public void init() {
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+            .type("Query", type -> type.dataFetcher("name", environment -> "binary"))
+            .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("type Query { name: String }"),
+            runtimeWiring);
+        GraphQLObjectMapper graphQLObjectMapper = GraphQLObjectMapper.newBuilder().build();
+        GraphQLInvocationInputFactory invocationInputFactory = GraphQLInvocationInputFactory.newBuilder(schema).build();
+        GraphQLQueryInvoker queryInvoker = GraphQLQueryInvoker.newBuilder().build();
+        filter = new BinaryFormatsFilter(() -> graphQLObjectMapper, () -> invocationInputFactory, () -> queryInvoker);
+    }
+
+    @Test
+    public void assertThatSmileRequestIsAnsweredInSmile() throws Exception {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContentType("application/x-jackson-smile");
+        request.addHeader(HttpHeaders.ACCEPT, "application/x-jackson-smile");
+        request.setContent(smileMapper.writeValueAsBytes(Collections.singletonMap("query", QUERY)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getContentType()).isEqualTo("application/x-jackson-smile");
+        JsonNode result = smileMapper.readTree(response.getContentAsByteArray());
+        assertThat(result.path("data").path("name").asText()).isEqualTo("binary");
+    }
+
+    @Test
+    public void assertThatJsonRequestIsAnsweredInTheAcceptedFormat() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+        request.setContent(("{\"query\":\"" + QUERY + "\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getContentType()).isEqualTo("application/cbor");
+        JsonNode result = new ObjectMapper(new CBORFactory()).readTree(response.getContentAsByteArray());
+        assertThat(result.path("data").path("name").asText()).isEqualTo("binary");
+    }
+
+    @Test
+    public void assertThatJsonRequestAcceptingJsonIsLeftToTheChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(("{\"query\":\"" + QUERY + "\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT);
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.develoment_test.config.graphql;
+
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.servlet.GraphQLContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link CacheControlInstrumentation}.
+ */
+public class CacheControlInstrumentationTest {
+
+    private static final String SCHEMA = "directive @cacheControl(maxAge: Int, scope: CacheControlScope) on FIELD_DEFINITION\n" +
+        "enum CacheControlScope { PUBLIC PRIVATE }\n" +
+        "type Query {\n" +
+        "  authorities: [String] @cacheControl(maxAge: 3600, scope: PUBLIC)\n" +
+        "  functionalities: [Functionality] @cacheControl(maxAge: 300, scope: PUBLIC)\n" +
+        "  account: String\n" +
+        "}\n" +
+        "type Functionality { id: ID, owner: String @cacheControl(maxAge: 60, scope: PRIVATE) }";
+
+    private GraphQL graphQL;
+
+    @BeforeEach
+    public void init() {
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA),
+            RuntimeWiring.newRuntimeWiring().build());
+        graphQL = GraphQL.newGraphQL(schema).instrumentation(new CacheControlInstrumentation()).build();
+    }
+
+    @Test
+    public void assertThatHintsAreReadFromTheSchema() {
+        CacheControlPolicy policy = policy("{ authorities functionalities { id } }");
+
+        assertThat(policy.getMaxAge()).isEqualTo(300);
+        assertThat(policy.getScope()).isEqualTo(CacheControlHints.Scope.PUBLIC);
+        assertThat(policy.getTypeNames()).contains("Functionality");
+    }
+
+    @Test
+    public void assertThatPrivateNestedFieldMakesTheQueryPrivate() {
+        CacheControlPolicy policy = policy("{ functionalities { id owner } }");
+
+        assertThat(policy.getMaxAge()).isEqualTo(60);
+        assertThat(policy.getScope()).isEqualTo(CacheControlHints.Scope.PRIVATE);
+    }
+
+    @Test
+    public void assertThatRootFieldWithoutHintIsNotCacheable() {
+        assertThat(policy("{ authorities account }").isCacheable()).isFalse();
+    }
+
+    private CacheControlPolicy policy(String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        graphQL.execute(builder -> builder.query(query).context(new GraphQLContext(request)));
+        return (CacheControlPolicy) request.getAttribute(ResponseCacheFilter.POLICY_ATTRIBUTE);
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link CachingPreparsedDocumentProvider}.
+ */
+public class CachingPreparsedDocumentProviderTest {
+
+    private static final String QUERY = "{ getAllFunctionalities { id name } }";
+
+    private final AtomicInteger parses = new AtomicInteger();
+
+    private CachingPreparsedDocumentProvider provider;
+
+    @BeforeEach
+    public void init() {
+        provider = new CachingPreparsedDocumentProvider(new ApplicationProperties(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void destroy() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void assertThatDocumentIsParsedOnce() {
+        Document document = get(QUERY).getDocument();
+
+        assertThat(get(QUERY).getDocument()).isSameAs(document);
+        assertThat(parses).hasValue(1);
+    }
+
+    @Test
+    public void assertThatDocumentIsKeyedByTheHashOfThePersistedQuery() {
+        String hash = Hashes.sha256Hex(QUERY.getBytes(StandardCharsets.UTF_8));
+        Document document = get(QUERY).getDocument();
+
+        // The hash checked by the persisted query filter is not computed again
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        Hashes.putQueryHash(request, "{ getAllFunctionalities { id } }", hash.toUpperCase());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertThat(get("{ getAllFunctionalities { id } }").getDocument()).isSameAs(document);
+        assertThat(parses).hasValue(1);
+    }
+
+    private PreparsedDocumentEntry get(String query) {
+        return provider.get(query, q -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(new Parser().parseDocument(q));
+        });
+    }
+}
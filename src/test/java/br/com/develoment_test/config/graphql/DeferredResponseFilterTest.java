@@ -0,0 +1,116 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQL;
+import graphql.servlet.GraphQLInvocationInputFactory;
+import graphql.servlet.GraphQLQueryInvoker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link DeferredResponseFilter}.
+ */
+public class DeferredResponseFilterTest {
+
+    private GraphQLQueryInvoker queryInvoker;
+
+    private DeferredResponseFilter filter;
+
+    @BeforeEach
+    public void init() {
+        GraphQLInvocationInputFactory invocationInputFactory = mock(GraphQLInvocationInputFactory.class);
+        queryInvoker = mock(GraphQLQueryInvoker.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getGraphql().getDeferred().setTimeoutSeconds(1);
+        filter = new DeferredResponseFilter(new ObjectMapper(), () -> invocationInputFactory, () -> queryInvoker,
+            applicationProperties);
+    }
+
+    @Test
+    public void assertThatFailedDeferredResultsEndWithAnError() throws Exception {
+        respondWith(subscriber -> {
+            subscriber.onSubscribe(new NoOpSubscription());
+            subscriber.onError(new IllegalStateException("Resolver failed"));
+        });
+
+        String response = execute();
+
+        assertThat(response).contains("{\"data\":{\"id\":1},\"hasNext\":true}");
+        assertThat(response).endsWith("{\"errors\":[{\"message\":\"Deferred results failed\"}],\"hasNext\":false}\r\n-----\r\n");
+    }
+
+    @Test
+    public void assertThatPendingDeferredResultsTimeOut() throws Exception {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        respondWith(subscriber -> subscriber.onSubscribe(new NoOpSubscription() {
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        }));
+
+        String response = execute();
+
+        assertThat(response).endsWith("{\"errors\":[{\"message\":\"Deferred results timed out\"}],\"hasNext\":false}\r\n-----\r\n");
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    public void assertThatCompletedDeferredResultsEndWithoutError() throws Exception {
+        respondWith(subscriber -> {
+            subscriber.onSubscribe(new NoOpSubscription());
+            subscriber.onNext(new ExecutionResultImpl(Collections.singletonMap("name", "deferred"), null));
+            subscriber.onComplete();
+        });
+
+        String response = execute();
+
+        assertThat(response).contains("{\"data\":{\"name\":\"deferred\"},\"hasNext\":true}");
+        assertThat(response).endsWith("{\"hasNext\":false}\r\n-----\r\n");
+    }
+
+    private void respondWith(Publisher<ExecutionResult> deferredResults) {
+        ExecutionResult result = new ExecutionResultImpl(Collections.singletonMap("id", 1), null,
+            Collections.singletonMap(GraphQL.DEFERRED_RESULTS, deferredResults));
+        when(queryInvoker.query(any())).thenReturn(result);
+    }
+
+    private String execute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.addHeader(HttpHeaders.ACCEPT, DeferredResponseFilter.MULTIPART_MIXED);
+        request.setContent("{\"query\":\"{ id ... @defer { name } }\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getContentAsString();
+    }
+
+    private static class NoOpSubscription implements Subscription {
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
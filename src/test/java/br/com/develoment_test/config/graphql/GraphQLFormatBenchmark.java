@@ -0,0 +1,94 @@
+package br.com.develoment_test.config.graphql;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the encoding and decoding of a GraphQL result in the formats of the {@link BinaryFormatsFilter}.
+ * <p>
+ * The size of the encoded result is printed for each format when the benchmark is set up. Run with:
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) org.openjdk.jmh.Main GraphQLFormatBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class GraphQLFormatBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private String format;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonFactory factory;
+
+    private Map<String, Object> result;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        List<Map<String, Object>> functionalities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> functionality = new LinkedHashMap<>();
+            functionality.put("id", String.valueOf(i));
+            functionality.put("name", "functionality-" + i);
+            functionality.put("description", "Description of the functionality " + i);
+            functionality.put("authority", Collections.singletonMap("name", "ROLE_USER"));
+            functionalities.add(functionality);
+        }
+        result = Collections.singletonMap("data", Collections.singletonMap("getAllFunctionalities", functionalities));
+        factory = GraphQLFormat.valueOf(format).factory(objectMapper);
+        encoded = objectMapper.writer().with(factory).writeValueAsBytes(result);
+        System.out.println(format + " result of " + size + " rows: " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public long encode() throws IOException {
+        CountingOutputStream out = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+        try (JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            objectMapper.writeValue(generator, result);
+        }
+        return out.getByteCount();
+    }
+
+    @Benchmark
+    public JsonNode decode() throws IOException {
+        try (JsonParser parser = factory.createParser(encoded)) {
+            return objectMapper.readTree(parser);
+        }
+    }
+}
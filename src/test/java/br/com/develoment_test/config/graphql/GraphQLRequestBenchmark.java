@@ -0,0 +1,184 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.servlet.GraphQLInvocationInputFactory;
+import graphql.servlet.GraphQLObjectMapper;
+import graphql.servlet.GraphQLQueryInvoker;
+import graphql.servlet.SimpleGraphQLHttpServlet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+
+import javax.servlet.Filter;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a GraphQL POST request through the GraphQL filters and the servlet, with the results written by the
+ * servlet or by the {@link StreamingResponseFilter}.
+ * <p>
+ * The memory allocated per request is the {@code gc.alloc.rate.norm} of the GC profiler. Run with:
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) org.openjdk.jmh.Main GraphQLRequestBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class GraphQLRequestBenchmark {
+
+    private static final String SCHEMA = "type Query { functionalities: [Functionality] }\n" +
+        "type Functionality { id: ID, name: String, description: String, authority: String }";
+
+    private static final byte[] BODY = ("{\"query\":\"{ functionalities { id name description authority } }\"," +
+        "\"variables\":{},\"operationName\":null}").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"10", "1000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean streaming;
+
+    private ExecutorService executor;
+
+    private SimpleGraphQLHttpServlet servlet;
+
+    private Filter[] filters;
+
+    @Setup
+    public void setup() throws Exception {
+        List<Map<String, Object>> functionalities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> functionality = new HashMap<>();
+            functionality.put("id", i);
+            functionality.put("name", "functionality-" + i);
+            functionality.put("description", "Description of the functionality " + i);
+            functionality.put("authority", "ROLE_USER");
+            functionalities.add(functionality);
+        }
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+            .type("Query", type -> type.dataFetcher("functionalities", environment -> functionalities))
+            .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), runtimeWiring);
+
+        GraphQLObjectMapper graphQLObjectMapper = GraphQLObjectMapper.newBuilder().build();
+        GraphQLInvocationInputFactory invocationInputFactory = GraphQLInvocationInputFactory.newBuilder(schema).build();
+        GraphQLQueryInvoker queryInvoker = GraphQLQueryInvoker.newBuilder().build();
+        servlet = SimpleGraphQLHttpServlet.newBuilder(invocationInputFactory)
+            .withObjectMapper(graphQLObjectMapper)
+            .withQueryInvoker(queryInvoker)
+            .build();
+        servlet.init(new MockServletConfig());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newSingleThreadExecutor();
+        List<Filter> chain = new ArrayList<>();
+        chain.add(new ResponseCacheFilter(objectMapper, applicationProperties, meterRegistry));
+        chain.add(new PersistedQueryFilter(objectMapper, applicationProperties, meterRegistry));
+        chain.add(new BatchedRequestFilter(objectMapper, () -> servlet, executor, applicationProperties, meterRegistry));
+        chain.add(new DeferredResponseFilter(objectMapper, () -> invocationInputFactory, () -> queryInvoker,
+            applicationProperties));
+        chain.add(new IntrospectionFilter(objectMapper, applicationProperties, meterRegistry));
+        if (streaming) {
+            chain.add(new StreamingResponseFilter(() -> graphQLObjectMapper, () -> invocationInputFactory,
+                () -> queryInvoker, applicationProperties, meterRegistry));
+        }
+        filters = chain.toArray(new Filter[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse post() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(BODY);
+        MockHttpServletResponse response = new DiscardingResponse();
+        new MockFilterChain(servlet, filters).doFilter(request, response);
+        return response;
+    }
+
+    /**
+     * A response discarding its body, as a container sends it, instead of holding it in memory.
+     */
+    private static class DiscardingResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void write(int b) {
+                // Discarded
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // Discarded
+            }
+        };
+
+        private PrintWriter writer;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            }
+            return writer;
+        }
+    }
+}
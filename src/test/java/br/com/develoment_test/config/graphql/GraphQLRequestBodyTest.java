@@ -0,0 +1,126 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.Filter;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link GraphQLRequestBody}, shared by the GraphQL filters.
+ */
+public class GraphQLRequestBodyTest {
+
+    private static final String QUERY = "{ getAllFunctionalities { id name } }";
+
+    private CountingObjectMapper objectMapper;
+
+    private ExecutorService executor;
+
+    private Filter[] filters;
+
+    @BeforeEach
+    public void init() {
+        objectMapper = new CountingObjectMapper();
+        executor = Executors.newSingleThreadExecutor();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        filters = new Filter[]{
+            new ResponseCacheFilter(objectMapper, applicationProperties, meterRegistry),
+            new PersistedQueryFilter(objectMapper, applicationProperties, meterRegistry),
+            new BatchedRequestFilter(objectMapper, EchoServlet::new, executor,
+                applicationProperties, meterRegistry),
+            new DeferredResponseFilter(objectMapper, () -> null, () -> null, applicationProperties),
+            new IntrospectionFilter(objectMapper, applicationProperties, meterRegistry)
+        };
+    }
+
+    @AfterEach
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void assertThatBodyIsParsedOnceByTheFilters() throws Exception {
+        String body = "{\"query\":\"" + QUERY + "\",\"variables\":{}}";
+
+        assertThat(execute(body)).isEqualTo(body);
+        assertThat(objectMapper.parses).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatPersistedQueryIsServedToTheServlet() throws Exception {
+        String hash = Hashes.sha256Hex(QUERY.getBytes(StandardCharsets.UTF_8));
+        String extensions = "\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"" + hash + "\"}}";
+        execute("{\"query\":\"" + QUERY + "\"," + extensions + "}");
+        objectMapper.parses = 0;
+
+        assertThat(execute("{" + extensions + "}")).isEqualTo("{\"query\":\"" + QUERY + "\"}");
+        assertThat(objectMapper.parses).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatOtherContentTypesAreNotRead() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContentType(MediaType.MULTIPART_FORM_DATA_VALUE);
+        request.setContent("--boundary--".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new MockFilterChain(new EchoServlet(), filters).doFilter(request, response);
+
+        assertThat(response.getContentAsString()).isEqualTo("--boundary--");
+        assertThat(objectMapper.parses).isZero();
+    }
+
+    private String execute(String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new EchoServlet(), filters).doFilter(request, response);
+        return response.getContentAsString();
+    }
+
+    private static class CountingObjectMapper extends ObjectMapper {
+
+        private static final long serialVersionUID = 1L;
+
+        private int parses;
+
+        @Override
+        public <T extends TreeNode> T readTree(JsonParser p) throws IOException {
+            parses++;
+            return super.readTree(p);
+        }
+    }
+
+    private static class EchoServlet extends HttpServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            IOUtils.copy(request.getInputStream(), response.getOutputStream());
+        }
+    }
+}
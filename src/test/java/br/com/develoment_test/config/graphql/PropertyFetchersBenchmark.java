@@ -0,0 +1,115 @@
+package br.com.develoment_test.config.graphql;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a query resolving the properties of 10 000 objects, with the reflective fetchers of graphql-java and
+ * with the getters generated by the {@link PropertyFetchersInstrumentation}.
+ * <p>
+ * With two source classes, the list alternates between a class and its subclass. Run with:
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) org.openjdk.jmh.Main PropertyFetchersBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class PropertyFetchersBenchmark {
+
+    private static final String SCHEMA = "type Query { items: [Item] }\n" +
+        "type Item { id: ID, name: String, count: Int, active: Boolean }";
+
+    private static final String QUERY = "{ items { id name count active } }";
+
+    private static final int SIZE = 10_000;
+
+    @Param({"1", "2"})
+    private int sourceClasses;
+
+    private GraphQL reflective;
+
+    private GraphQL generated;
+
+    @Setup
+    public void setup() {
+        List<Item> items = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            items.add(i % sourceClasses == 0 ? new Item(i) : new SpecialItem(i));
+        }
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+            .type("Query", type -> type.dataFetcher("items", environment -> items))
+            .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA), runtimeWiring);
+        ResolverWiring wiring = ResolverWiring.ofClasses(Collections.emptyList());
+        reflective = GraphQL.newGraphQL(schema).instrumentation(new SimpleInstrumentation()).build();
+        generated = GraphQL.newGraphQL(schema).instrumentation(new PropertyFetchersInstrumentation(wiring)).build();
+    }
+
+    @Benchmark
+    public ExecutionResult reflectiveFetchers() {
+        return reflective.execute(QUERY);
+    }
+
+    @Benchmark
+    public ExecutionResult generatedGetters() {
+        return generated.execute(QUERY);
+    }
+
+    public static class Item {
+
+        private final long id;
+
+        public Item(long id) {
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return "item-" + id;
+        }
+
+        public int getCount() {
+            return (int) id % 100;
+        }
+
+        public boolean isActive() {
+            return id % 2 == 0;
+        }
+    }
+
+    public static class SpecialItem extends Item {
+
+        public SpecialItem(long id) {
+            super(id);
+        }
+    }
+}
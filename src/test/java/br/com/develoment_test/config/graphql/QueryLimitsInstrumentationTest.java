@@ -0,0 +1,67 @@
+package br.com.develoment_test.config.graphql;
+
+import br.com.develoment_test.config.ApplicationProperties;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLError;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link QueryLimitsInstrumentation}.
+ */
+public class QueryLimitsInstrumentationTest {
+
+    private static final String SCHEMA = "type Query { items(size: Int): [Item] }\n" +
+        "type Item { id: ID, children(first: Int): [Item] }";
+
+    private GraphQL graphQL;
+
+    @BeforeEach
+    public void init() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getGraphql().getLimits().setMaxCost(1000);
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(SCHEMA),
+            RuntimeWiring.newRuntimeWiring().build());
+        graphQL = GraphQL.newGraphQL(schema)
+            .instrumentation(new QueryLimitsInstrumentation(applicationProperties, new SimpleMeterRegistry()))
+            .build();
+    }
+
+    @Test
+    public void assertThatCostWithinLimitIsAccepted() {
+        assertThat(errors("{ items(size: 10) { children { id } } }")).isEmpty();
+    }
+
+    @Test
+    public void assertThatNegativeSizeDoesNotLowerTheCost() {
+        assertThat(errors("{ a: items(size: -1000000) { children { id } } b: items(size: 5000) { children { id } } }"))
+            .containsExactly("Query cost 5002 exceeds the maximum of 1000");
+    }
+
+    @Test
+    public void assertThatNegativeVariableSizeDoesNotLowerTheCost() {
+        ExecutionResult result = graphQL.execute(builder -> builder
+            .query("query($size: Int) { a: items(size: $size) { children { id } } b: items(size: 5000) { children { id } } }")
+            .variables(Collections.singletonMap("size", -1000000)));
+
+        assertThat(result.getErrors()).extracting(GraphQLError::getMessage)
+            .containsExactly("Query cost 5002 exceeds the maximum of 1000");
+    }
+
+    private List<String> errors(String query) {
+        return graphQL.execute(query).getErrors().stream().map(GraphQLError::getMessage).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.develoment_test.config.graphql;
+
+import com.coxautodev.graphql.tools.GraphQLResolver;
+import graphql.language.Definition;
+import graphql.language.FieldDefinition;
+import graphql.language.ObjectTypeDefinition;
+import graphql.parser.Parser;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link ResolverWiring}, checking the GraphQL schema against the methods of the resolvers.
+ */
+public class ResolverWiringTest {
+
+    private static final String SCHEMA_LOCATION_PATTERN = "classpath*:graphql/**/*.graphqls";
+
+    private static final String BASE_PACKAGE = "br.com.develoment_test";
+
+    private static List<ObjectTypeDefinition> types;
+
+    private static ResolverWiring wiring;
+
+    @BeforeAll
+    public static void init() throws Exception {
+        types = parseObjectTypes();
+        wiring = ResolverWiring.ofClasses(findResolverClasses());
+    }
+
+    @Test
+    public void assertThatEachRootFieldHasOneResolverMethod() {
+        List<String> errors = new ArrayList<>();
+        for (ObjectTypeDefinition type : types) {
+            if (ResolverWiring.isRootType(type.getName())) {
+                for (FieldDefinition field : type.getFieldDefinitions()) {
+                    List<Method> methods = wiring.findResolverMethods(type.getName(), field.getName(),
+                        field.getInputValueDefinitions().size());
+                    if (methods.size() != 1) {
+                        errors.add(type.getName() + "." + field.getName() + " matches " + methods);
+                    }
+                }
+            }
+        }
+
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    public void assertThatNoFieldMatchesSeveralResolverMethods() {
+        List<String> errors = new ArrayList<>();
+        for (ObjectTypeDefinition type : types) {
+            for (FieldDefinition field : type.getFieldDefinitions()) {
+                List<Method> methods = wiring.findResolverMethods(type.getName(), field.getName(),
+                    field.getInputValueDefinitions().size());
+                if (methods.size() > 1) {
+                    errors.add(type.getName() + "." + field.getName() + " matches " + methods);
+                }
+            }
+        }
+
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    public void assertThatResolvedFieldsAreToldFromProperties() {
+        assertThat(wiring.isResolved("Functionality", "authority", 0)).isTrue();
+        assertThat(wiring.isResolved("User", "authorities", 0)).isTrue();
+        assertThat(wiring.isResolved("Functionality", "name", 0)).isFalse();
+        assertThat(wiring.isResolved("UserDTO", "login", 0)).isFalse();
+        assertThat(wiring.isResolved("Query", "getAuthorities", 0)).isTrue();
+    }
+
+    private static List<ObjectTypeDefinition> parseObjectTypes() throws IOException {
+        List<ObjectTypeDefinition> types = new ArrayList<>();
+        Parser parser = new Parser();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(SCHEMA_LOCATION_PATTERN)) {
+            String schema;
+            try (InputStream in = resource.getInputStream()) {
+                schema = IOUtils.toString(in, StandardCharsets.UTF_8);
+            }
+            for (Definition definition : parser.parseDocument(schema).getDefinitions()) {
+                if (definition instanceof ObjectTypeDefinition) {
+                    types.add((ObjectTypeDefinition) definition);
+                }
+            }
+        }
+        return types;
+    }
+
+    private static List<Class<?>> findResolverClasses() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(GraphQLResolver.class));
+        List<Class<?>> resolvers = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(BASE_PACKAGE)) {
+            resolvers.add(Class.forName(candidate.getBeanClassName(), false, ResolverWiringTest.class.getClassLoader()));
+        }
+        return resolvers;
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.develoment_test.config.graphql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link SubscriptionBroadcaster}.
+ */
+public class SubscriptionBroadcasterTest {
+
+    private ExecutorService executor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SubscriptionBroadcaster<Integer> broadcaster;
+
+    @BeforeEach
+    public void init() {
+        executor = Executors.newFixedThreadPool(2);
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new SubscriptionBroadcaster<>(4, meterRegistry.counter("dropped"), executor);
+    }
+
+    @AfterEach
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void assertThatBlockedSubscriberDoesNotDelayOthers() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        broadcaster.subscribe(new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer event) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        RecordingSubscriber fast = new RecordingSubscriber();
+        broadcaster.subscribe(fast);
+
+        for (int i = 0; i < 3; i++) {
+            broadcaster.broadcast(i);
+        }
+
+        assertThat(fast.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fast.events).containsExactly(0, 1, 2);
+        unblock.countDown();
+    }
+
+    @Test
+    public void assertThatSlowSubscriberDropsOldestEvents() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingSubscriber slow = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer event) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onNext(event);
+            }
+        };
+        broadcaster.subscribe(slow);
+
+        broadcaster.broadcast(0);
+        // Wait for the first event to be taken from the buffer, so that the next ones fill it
+        Thread.sleep(100);
+        for (int i = 1; i <= 6; i++) {
+            broadcaster.broadcast(i);
+        }
+        unblock.countDown();
+
+        assertThat(slow.completed(5, 5, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.events).containsExactly(0, 3, 4, 5, 6);
+        assertThat(meterRegistry.counter("dropped").count()).isEqualTo(2);
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Integer> {
+
+        final List<Integer> events = new CopyOnWriteArrayList<>();
+
+        final CountDownLatch received = new CountDownLatch(3);
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(Integer event) {
+            events.add(event);
+            received.countDown();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        boolean completed(int count, long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return events.size() >= count;
+        }
+    }
+}
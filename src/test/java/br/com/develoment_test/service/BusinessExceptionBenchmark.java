@@ -0,0 +1,80 @@
+package br.com.develoment_test.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a business error thrown below a stack of calls and caught at its top, with the preallocated
+ * stackless instance of a {@link BusinessException}, with a new stackless instance, and with a new exception
+ * capturing its stack as a regular {@link RuntimeException} does.
+ * <p>
+ * The memory allocated per error is the {@code gc.alloc.rate.norm} of the GC profiler. Run with:
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) org.openjdk.jmh.Main BusinessExceptionBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class BusinessExceptionBenchmark {
+
+    /**
+     * The depth of the calls below the catch, the stack of a request being about 100 frames deep.
+     */
+    @Param({"10", "100"})
+    private int depth;
+
+    @Benchmark
+    public String preallocated() {
+        try {
+            return call(depth, () -> EmailAlreadyUsedException.INSTANCE);
+        } catch (BusinessException e) {
+            return e.getCode();
+        }
+    }
+
+    @Benchmark
+    public String stackless() {
+        try {
+            return call(depth, EmailAlreadyUsedException::new);
+        } catch (BusinessException e) {
+            return e.getCode();
+        }
+    }
+
+    @Benchmark
+    public String regular() {
+        try {
+            return call(depth, () -> new RuntimeException("Email is already in use!"));
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String call(int depth, ExceptionFactory factory) {
+        if (depth == 0) {
+            throw factory.create();
+        }
+        return call(depth - 1, factory);
+    }
+
+    @FunctionalInterface
+    private interface ExceptionFactory {
+
+        RuntimeException create();
+    }
+}
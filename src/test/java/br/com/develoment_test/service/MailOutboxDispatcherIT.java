@@ -0,0 +1,153 @@
+package br.com.develoment_test.service;
+
+import br.com.develoment_test.DevelopmentTestApp;
+import br.com.develoment_test.domain.MailOutboxMessage;
+import br.com.develoment_test.domain.User;
+import br.com.develoment_test.domain.enumeration.MailOutboxStatus;
+import br.com.develoment_test.repository.MailOutboxRepository;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link MailOutboxDispatcher}, sending the emails of the outbox to an in-process SMTP
+ * server.
+ */
+@SpringBootTest(classes = DevelopmentTestApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.mail.port=3025")
+public class MailOutboxDispatcherIT {
+
+    private static GreenMail greenMail;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    public static void startSmtpServer() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+    }
+
+    @AfterAll
+    public static void stopSmtpServer() {
+        greenMail.stop();
+    }
+
+    @BeforeEach
+    public void init() throws Exception {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        mailOutboxRepository.deleteAll();
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @AfterEach
+    public void destroy() {
+        mailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    public void assertThatEmailIsDeliveredAfterCommit() throws Exception {
+        transactionTemplate.execute(status -> {
+            mailService.sendEmail("john.doe@localhost", "testSubject", "testContent", false, false);
+            // A scheduled dispatch, on another thread, before the commit
+            CompletableFuture.runAsync(mailOutboxDispatcher::dispatch).join();
+            return null;
+        });
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+        mailOutboxDispatcher.dispatch();
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        MimeMessage message = greenMail.getReceivedMessages()[0];
+        assertThat(message.getAllRecipients()[0].toString()).isEqualTo("john.doe@localhost");
+        assertThat(message.getSubject()).isEqualTo("testSubject");
+        assertThat(mailOutboxRepository.findAll()).extracting(MailOutboxMessage::getStatus)
+            .containsExactly(MailOutboxStatus.SENT);
+    }
+
+    @Test
+    public void assertThatNothingIsSentOnRollback() {
+        transactionTemplate.execute(status -> {
+            mailService.sendEmail("john.doe@localhost", "testSubject", "testContent", false, false);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        mailOutboxDispatcher.dispatch();
+
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        assertThat(mailOutboxRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    public void assertThatBatchOfTemplatedEmailsIsDelivered() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setLogin("user" + i);
+            user.setEmail("user" + i + "@localhost");
+            user.setLangKey("en");
+            user.setResetKey("resetkey" + i);
+            users.add(user);
+        }
+        mailService.sendPasswordResetMails(users);
+
+        mailOutboxDispatcher.dispatch();
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 3)).isTrue();
+        assertThat(greenMail.getReceivedMessages()).extracting(message -> message.getAllRecipients()[0].toString())
+            .containsExactlyInAnyOrder("user0@localhost", "user1@localhost", "user2@localhost");
+        assertThat(GreenMailUtil.getBody(greenMail.getReceivedMessages()[0])).contains("resetkey");
+        assertThat(mailOutboxRepository.findAll()).extracting(MailOutboxMessage::getStatus)
+            .containsOnly(MailOutboxStatus.SENT);
+    }
+
+    @Test
+    public void assertThatBatchOnlyHoldsTheMessagesClaimed() throws Exception {
+        // A claim of this dispatcher whose result could not be saved, still under lease
+        MailOutboxMessage stale = new MailOutboxMessage("stale@localhost", "testSubject", "testContent", false, false,
+            Instant.now());
+        stale.setClaimedBy((String) ReflectionTestUtils.getField(mailOutboxDispatcher, "owner"));
+        stale.setClaimedUntil(Instant.now().plusSeconds(300));
+        mailOutboxRepository.save(stale);
+        mailService.sendEmail("john.doe@localhost", "testSubject", "testContent", false, false);
+
+        mailOutboxDispatcher.dispatch();
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString()).isEqualTo("john.doe@localhost");
+        assertThat(mailOutboxRepository.findById(stale.getId())).get()
+            .extracting(MailOutboxMessage::getStatus).isEqualTo(MailOutboxStatus.PENDING);
+    }
+}
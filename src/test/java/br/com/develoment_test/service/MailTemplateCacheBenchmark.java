@@ -0,0 +1,94 @@
+package br.com.develoment_test.service;
+
+import br.com.develoment_test.domain.User;
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the rendering of a mail template by the {@link MailTemplateCache}, with the compiled template and
+ * with a full Thymeleaf rendering for each email, as when the Thymeleaf cache is disabled.
+ * <p>
+ * Thymeleaf caches its parsed templates in both cases. The memory allocated per email is the
+ * {@code gc.alloc.rate.norm} of the GC profiler. Run with:
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) org.openjdk.jmh.Main MailTemplateCacheBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class MailTemplateCacheBenchmark {
+
+    private static final Locale LOCALE = Locale.ENGLISH;
+
+    @Param({"mail/activationEmail", "mail/passwordResetEmail"})
+    private String templateName;
+
+    private User user;
+
+    private MailTemplateCache cached;
+
+    private MailTemplateCache uncached;
+
+    @Setup
+    public void setup() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+
+        user = new User();
+        user.setLogin("john.doe");
+        user.setEmail("john.doe@example.com");
+        user.setLangKey(LOCALE.toLanguageTag());
+        user.setActivationKey("12345678901234567890");
+        user.setResetKey("09876543210987654321");
+
+        cached = new MailTemplateCache(jHipsterProperties, messageSource, templateEngine, true);
+        uncached = new MailTemplateCache(jHipsterProperties, messageSource, templateEngine, false);
+        // The first emails compile the template and check it against Thymeleaf
+        cached.render(templateName, user, LOCALE);
+        cached.render(templateName, user, LOCALE);
+    }
+
+    @Benchmark
+    public String cached() {
+        return cached.render(templateName, user, LOCALE);
+    }
+
+    @Benchmark
+    public String uncached() {
+        return uncached.render(templateName, user, LOCALE);
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.develoment_test.service;
+
+import br.com.develoment_test.DevelopmentTestApp;
+import br.com.develoment_test.aop.scheduling.SchedulerLock;
+import br.com.develoment_test.domain.ScheduledLock;
+import br.com.develoment_test.repository.ScheduledLockRepository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link ScheduledLockService}, with two nodes sharing one database.
+ */
+public class ScheduledLockServiceIT {
+
+    private static final String DATABASE_URL = "jdbc:h2:mem:scheduled_lock;DB_CLOSE_DELAY=-1";
+
+    private static final AtomicInteger RUNS = new AtomicInteger();
+
+    private static ConfigurableApplicationContext node1;
+
+    private static ConfigurableApplicationContext node2;
+
+    @BeforeAll
+    public static void startNodes() {
+        node1 = startNode();
+        node2 = startNode();
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        node2.close();
+        node1.close();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(DevelopmentTestApp.class, LockedJobConfiguration.class)
+            .run("--spring.datasource.url=" + DATABASE_URL, "--server.port=0");
+    }
+
+    @BeforeEach
+    public void init() {
+        node1.getBean(ScheduledLockRepository.class).deleteAll();
+        RUNS.set(0);
+    }
+
+    @RepeatedTest(20)
+    public void assertThatConcurrentJobRunsOnOneNode() throws Exception {
+        LockedJob job1 = node1.getBean(LockedJob.class);
+        LockedJob job2 = node2.getBean(LockedJob.class);
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (LockedJob job : new LockedJob[] {job1, job2}) {
+                runs.add(executor.submit(() -> {
+                    start.await();
+                    job.run();
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(RUNS.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatNodeSkipsJobRunByTheOtherNode() {
+        node1.getBean(UserService.class).removeNotActivatedUsers();
+        node2.getBean(UserService.class).removeNotActivatedUsers();
+        node2.getBean(AuditEventService.class).removeOldAuditEvents();
+        node1.getBean(AuditEventService.class).removeOldAuditEvents();
+
+        ScheduledLockRepository scheduledLockRepository = node1.getBean(ScheduledLockRepository.class);
+        ScheduledLock usersLock = scheduledLockRepository.findById("removeNotActivatedUsers").get();
+        assertThat(usersLock.getLockedBy()).isEqualTo(node1.getBean(ScheduledLockService.class).getOwner());
+        assertThat(usersLock.getLastFinishedAt()).isNotNull();
+        ScheduledLock auditLock = scheduledLockRepository.findById("removeOldAuditEvents").get();
+        assertThat(auditLock.getLockedBy()).isEqualTo(node2.getBean(ScheduledLockService.class).getOwner());
+        assertThat(auditLock.getLastFinishedAt()).isNotNull();
+    }
+
+    @Test
+    public void assertThatExpiredLockIsTakenOver() {
+        LockedJob job1 = node1.getBean(LockedJob.class);
+        LockedJob job2 = node2.getBean(LockedJob.class);
+        job1.runShortLock();
+        job2.runShortLock();
+
+        assertThat(RUNS.get()).isEqualTo(2);
+        ScheduledLock lock = node1.getBean(ScheduledLockRepository.class).findById("shortLockedJob").get();
+        assertThat(lock.getLockedBy()).isEqualTo(node2.getBean(ScheduledLockService.class).getOwner());
+    }
+
+    @Configuration
+    public static class LockedJobConfiguration {
+
+        @Bean
+        public LockedJob lockedJob() {
+            return new LockedJob();
+        }
+    }
+
+    public static class LockedJob {
+
+        @SchedulerLock(name = "lockedJob", lockAtMostFor = "PT1M", lockAtLeastFor = "PT1M")
+        public void run() throws InterruptedException {
+            RUNS.incrementAndGet();
+            // Long enough for the other node to try while the lock is held
+            Thread.sleep(50);
+        }
+
+        @SchedulerLock(name = "shortLockedJob", lockAtMostFor = "PT1M")
+        public void runShortLock() {
+            RUNS.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.develoment_test.service;
+
+import br.com.develoment_test.config.ApplicationProperties;
+import br.com.develoment_test.domain.MailOutboxMessage;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the throughput of a batch of emails sent to an in-process SMTP server, with one
+ * {@link JavaMailSenderImpl#send(MimeMessage)} per email, which opens an SMTP session for each of them, and with
+ * {@link MailService#sendBatch} over the sessions of the {@link SmtpTransportPool}.
+ * <p>
+ * The server is local and uses neither TLS nor authentication, so the cost of a session is lower than with a real
+ * SMTP server. Run with:
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/classpath.txt) org.openjdk.jmh.Main SmtpTransportPoolBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class SmtpTransportPoolBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final MailService.BatchListener FAIL_ON_ERROR = new MailService.BatchListener() {
+
+        @Override
+        public void onSent(MailOutboxMessage message) {
+            // Sent
+        }
+
+        @Override
+        public void onFailure(MailOutboxMessage message, Exception e) {
+            throw new IllegalStateException(e);
+        }
+    };
+
+    private GreenMail greenMail;
+
+    private JavaMailSenderImpl javaMailSender;
+
+    private SmtpTransportPool smtpTransportPool;
+
+    private MailService mailService;
+
+    private List<MailOutboxMessage> batch;
+
+    @Setup
+    public void setup() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        javaMailSender.setPort(ServerSetupTest.SMTP.getPort());
+        // Not to resolve the local host name for the EHLO of each session
+        javaMailSender.getJavaMailProperties().setProperty("mail.smtp.localhost", "localhost");
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("test@localhost");
+        smtpTransportPool = new SmtpTransportPool(javaMailSender, new ApplicationProperties());
+        // Only the sending of the outbox messages is benchmarked, they are not queued
+        mailService = new MailService(null, null, javaMailSender, smtpTransportPool, jHipsterProperties);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new MailOutboxMessage("john.doe@localhost", "testSubject", "<p>testContent " + i + "</p>",
+                false, true, Instant.now()));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        smtpTransportPool.destroy();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void sessionPerEmail() throws MessagingException {
+        for (MailOutboxMessage message : batch) {
+            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isMultipart(), "UTF-8");
+            helper.setTo(message.getRecipient());
+            helper.setFrom("test@localhost");
+            helper.setSubject(message.getSubject());
+            helper.setText(message.getContent(), message.isHtml());
+            javaMailSender.send(mimeMessage);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void pooledSessions() {
+        mailService.sendBatch(batch, FAIL_ON_ERROR);
+    }
+}
@@ -0,0 +1,190 @@
+package br.com.develoment_test.web.rest;
+
+import br.com.develoment_test.DevelopmentTestApp;
+import br.com.develoment_test.config.SqlStatementCounter;
+import br.com.develoment_test.domain.Authority;
+import br.com.develoment_test.domain.Functionality;
+import br.com.develoment_test.domain.User;
+import br.com.develoment_test.repository.FunctionalityRepository;
+import br.com.develoment_test.repository.UserRepository;
+import br.com.develoment_test.security.AuthoritiesConstants;
+
+import graphql.ExecutionResult;
+import org.apache.commons.lang3.RandomStringUtils;
+import graphql.servlet.GraphQLInvocationInputFactory;
+import graphql.servlet.GraphQLQueryInvoker;
+import graphql.servlet.internal.GraphQLRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests counting the SQL statements run by the GraphQL queries, which must not grow with the number
+ * of results, and must only join the relationships selected by the query.
+ */
+@SpringBootTest(classes = DevelopmentTestApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class GraphQLStatementCountIT {
+
+    private static final String[] TABLES = {"functionality", "authority", "user", "user_authority"};
+
+    private static final List<String> BULK_LOGINS = Arrays.asList("bulk-user-1", "bulk-user-2");
+
+    @Autowired
+    private GraphQLQueryInvoker queryInvoker;
+
+    @Autowired
+    private GraphQLInvocationInputFactory invocationInputFactory;
+
+    @Autowired
+    private FunctionalityRepository functionalityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void init() {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("test", "anonymousUser",
+            AuthorityUtils.createAuthorityList(AuthoritiesConstants.ANONYMOUS)));
+        functionalityRepository.save(new Functionality(null, "createUser", new Authority(AuthoritiesConstants.ANONYMOUS)));
+    }
+
+    @AfterEach
+    public void destroy() {
+        SecurityContextHolder.clearContext();
+        functionalityRepository.deleteAll();
+        userRepository.deleteAll(userRepository.findAllByLoginIn(BULK_LOGINS));
+    }
+
+    @Test
+    public void assertThatListQueryStatementCountIsConstant() {
+        String query = "{ getAllFunctionalities { id name authority { name } } }";
+        createFunctionalities(9);
+        long statementsFor10 = countListStatements(query, 10);
+        createFunctionalities(490);
+        long statementsFor500 = countListStatements(query, 500);
+
+        assertThat(statementsFor500).isEqualTo(statementsFor10);
+        // The permission check and the list
+        assertThat(statementsFor500).isEqualTo(2);
+    }
+
+    @Test
+    public void assertThatListQueryWithoutAuthorityDoesNotLoadIt() {
+        createFunctionalities(10);
+
+        assertThat(countListStatements("{ getAllFunctionalities { id name } }", 11)).isEqualTo(2);
+        assertThat(SqlStatementCounter.count("authority")).isZero();
+    }
+
+    @Test
+    public void assertThatListQueryWithAuthorityNameDoesNotLoadIt() {
+        createFunctionalities(10);
+
+        assertThat(countListStatements("{ getAllFunctionalities { id authority { name } } }", 11)).isEqualTo(2);
+        assertThat(SqlStatementCounter.count("authority")).isZero();
+        assertThat(countListStatements("{ getAllFunctionalities { id authority { name __typename } } }", 11)).isEqualTo(2);
+        assertThat(SqlStatementCounter.count("authority")).isZero();
+    }
+
+    @Test
+    public void assertThatUserQueryWithoutAuthoritiesDoesNotJoinThem() {
+        authenticateAsAdmin("getUser");
+
+        assertThat(countUserStatements("{ getUser(login: \"admin\") { login email } }")).isEqualTo(2);
+        assertThat(SqlStatementCounter.count("user_authority")).isZero();
+    }
+
+    @Test
+    public void assertThatUserQueryWithAuthoritiesJoinsThemOnce() {
+        authenticateAsAdmin("getUser");
+
+        assertThat(countUserStatements("{ getUser(login: \"admin\") { login authorities } }")).isEqualTo(2);
+        assertThat(SqlStatementCounter.count("user_authority")).isEqualTo(1);
+    }
+
+    @Test
+    public void assertThatBulkUpgradeInsertsTheAuthoritiesInOneStatement() {
+        authenticateAsAdmin("upgradeAuthUser");
+        for (String login : BULK_LOGINS) {
+            User user = new User();
+            user.setLogin(login);
+            user.setPassword(RandomStringUtils.random(60));
+            user.setActivated(true);
+            user.getAuthorities().add(new Authority(AuthoritiesConstants.USER));
+            userRepository.saveAndFlush(user);
+        }
+
+        SqlStatementCounter.clear();
+        Map<String, List<Map<String, Object>>> data = execute("mutation { upgradeAuthUsers(logins: " +
+            "[\"bulk-user-1\", \"admin\", \"bulk-user-2\", \"unknown\"]) { login outcome } }");
+
+        assertThat(data.get("upgradeAuthUsers")).extracting(outcome -> outcome.get("outcome"))
+            .containsExactly("UPDATED", "UNCHANGED", "UPDATED", "NOT_FOUND");
+        // The permission check, the users, the insert of their authorities and the updated users
+        assertThat(SqlStatementCounter.count(TABLES)).isEqualTo(4);
+        for (String login : BULK_LOGINS) {
+            assertThat(userRepository.findOneWithAuthoritiesByLogin(login).get().getAuthorities())
+                .extracting(Authority::getName)
+                .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+        }
+    }
+
+    private void createFunctionalities(int count) {
+        List<Functionality> functionalities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String authority = i % 2 == 0 ? AuthoritiesConstants.USER : AuthoritiesConstants.ADMIN;
+            functionalities.add(new Functionality(null, "functionality" + i, new Authority(authority)));
+        }
+        functionalityRepository.saveAll(functionalities);
+    }
+
+    private void authenticateAsAdmin(String operation) {
+        functionalityRepository.save(new Functionality(null, operation, new Authority(AuthoritiesConstants.ADMIN)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", null,
+            AuthorityUtils.createAuthorityList(AuthoritiesConstants.ADMIN)));
+    }
+
+    private long countListStatements(String query, int expectedSize) {
+        SqlStatementCounter.clear();
+        Map<String, List<?>> data = execute(query);
+        long statements = SqlStatementCounter.count(TABLES);
+
+        assertThat(data.get("getAllFunctionalities")).hasSize(expectedSize);
+        return statements;
+    }
+
+    private long countUserStatements(String query) {
+        SqlStatementCounter.clear();
+        Map<String, Map<String, Object>> data = execute(query);
+        long statements = SqlStatementCounter.count(TABLES);
+
+        assertThat(data.get("getUser")).containsEntry("login", "admin");
+        return statements;
+    }
+
+    /**
+     * Execute a query as the GraphQL servlet does.
+     */
+    private <T> T execute(String query) {
+        ExecutionResult result = queryInvoker.query(invocationInputFactory.create(
+            new GraphQLRequest(query, Collections.emptyMap(), null), new MockHttpServletRequest()));
+
+        assertThat(result.getErrors()).isEmpty();
+        return result.getData();
+    }
+}